@@ -1,16 +1,21 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
@@ -37,6 +42,14 @@ public class BookingControllerGateway {
         return bookingClient.approveBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/approve")
+    public ResponseEntity<Object> approveBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingDecisionDto> decisions) {
+        log.info("PATCH /bookings/approve - User {} deciding on {} bookings", userId, decisions.size());
+        return bookingClient.approveBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -68,4 +81,12 @@ public class BookingControllerGateway {
         log.info("GET /bookings/owner?state={} - Fetching bookings for owner {}", state, ownerId);
         return bookingClient.getAllBookingsForOwner(ownerId, bookingState, from, size);
     }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerBookingSummary(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @Positive @RequestParam(defaultValue = "5") int size) {
+        log.info("GET /bookings/owner/summary - Fetching booking summary for owner {}", ownerId);
+        return bookingClient.getOwnerBookingSummary(ownerId, size);
+    }
 }
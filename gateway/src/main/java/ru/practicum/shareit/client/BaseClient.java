@@ -1,18 +1,54 @@
 package ru.practicum.shareit.client;
 
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
+    private static final String ANY_USER = "*";
+
     protected final RestTemplate rest;
+    private final RouteGuard guard;
+    @Nullable
+    private final ClientHttpRequestFactory streamRequests;
+    private final SingleFlight<ResponseEntity<Object>> reads = new SingleFlight<>();
+
+    public BaseClient(RestTemplate rest, RouteGuard guard) {
+        this.rest = rest;
+        this.guard = guard;
+        this.streamRequests = null;
+    }
 
-    public BaseClient(RestTemplate rest) {
+    /**
+     * For clients that relay streams: a stream on which the server stays silent for {@code streamReadTimeout}
+     * is given up, so a stalled upstream does not hold a streaming thread forever.
+     */
+    public BaseClient(RestTemplate rest, RouteGuard guard, Duration streamReadTimeout) {
         this.rest = rest;
+        this.guard = guard;
+        RequestConfig config = RequestConfig.custom()
+                .setResponseTimeout(Timeout.of(streamReadTimeout))
+                .build();
+        this.streamRequests = new HttpComponentsClientHttpRequestFactory(
+                HttpClients.custom().setDefaultRequestConfig(config).build());
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -23,8 +59,20 @@ public class BaseClient {
         return get(path, userId, null);
     }
 
+    /**
+     * Identical concurrent GETs share one upstream call. The answer may depend on who is asking, so the
+     * caller is part of the key; see {@link #getPublic} for resources that look the same to every user.
+     */
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        return coalescedGet(path, userId, parameters, userId == null ? ANY_USER : String.valueOf(userId));
+    }
+
+    /**
+     * Like {@link #get(String, Long, Map)}, but shares the upstream call between different users. Only for
+     * resources whose representation does not depend on the caller.
+     */
+    protected ResponseEntity<Object> getPublic(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return coalescedGet(path, userId, parameters, ANY_USER);
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -75,19 +123,83 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Opens a server-sent-events stream on the server and relays it chunk by chunk. The upstream
+     * status is checked before the gateway commits its own response, so errors are passed through as is.
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId) throws IOException {
+        Assert.state(streamRequests != null, "Client was created without a stream read timeout");
+        ClientHttpRequest request = streamRequests
+                .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+        request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+
+        ClientHttpResponse response = request.execute();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            try (response) {
+                byte[] body = response.getBody().readAllBytes();
+                return ResponseEntity.status(response.getStatusCode())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(out -> out.write(body));
+            }
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(out -> {
+                    try (response; InputStream in = response.getBody()) {
+                        byte[] buffer = new byte[1024];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, read);
+                            out.flush();
+                        }
+                    }
+                });
+    }
+
+    private ResponseEntity<Object> coalescedGet(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                String visibility) {
+        String uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters).toString()
+                : rest.getUriTemplateHandler().expand(path).toString();
+        String key = uri + '|' + visibility + '|' + currentIfNoneMatch();
+        return reads.execute(key, () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
                                                           @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        HttpHeaders headers = defaultHeaders(userId);
+        if (method == HttpMethod.GET) {
+            forwardValidators(headers);
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
+        // Ошибки клиента (4xx) — нормальные ответы, против маршрута считаются только сбои сервера
+        return guard.call(() -> exchange(method, path, parameters, requestEntity),
+                response -> response.getStatusCode().is5xxServerError());
+    }
+
+    /**
+     * The server's body is relayed as raw bytes: the gateway never looks inside it, so decoding the JSON into
+     * maps only to encode it again for the caller would be wasted work on every response.
+     */
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path,
+                                                @Nullable Map<String, Object> parameters, HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            ResponseEntity.BodyBuilder errorResponse = ResponseEntity.status(e.getStatusCode());
+            if (e.getResponseHeaders() != null && e.getResponseHeaders().getContentType() != null) {
+                errorResponse.contentType(e.getResponseHeaders().getContentType());
+            }
+            return errorResponse.body(e.getResponseBodyAsByteArray());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
@@ -102,14 +214,38 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+    /**
+     * Passes the caller's If-None-Match on to the server, so an unchanged resource comes back as a bodyless 304.
+     */
+    private static void forwardValidators(HttpHeaders headers) {
+        String ifNoneMatch = currentIfNoneMatch();
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+    }
+
+    @Nullable
+    private static String currentIfNoneMatch() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+        }
+        return null;
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+            return new ResponseEntity<>(response.getBody(), response.getHeaders(), response.getStatusCode());
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return responseBuilder.eTag(response.getHeaders().getETag()).build();
+        }
 
         if (response.hasBody()) {
+            if (response.getHeaders().getContentType() != null) {
+                responseBuilder.contentType(response.getHeaders().getContentType());
+            }
             return responseBuilder.body(response.getBody());
         }
 
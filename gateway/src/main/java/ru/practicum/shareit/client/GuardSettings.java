@@ -0,0 +1,13 @@
+package ru.practicum.shareit.client;
+
+public record GuardSettings(
+        int minConcurrency,
+        int initialConcurrency,
+        int maxConcurrency,
+        long latencyThresholdMs,
+        int breakerWindow,
+        int breakerMinCalls,
+        double breakerFailureRate,
+        long breakerOpenMs
+) {
+}
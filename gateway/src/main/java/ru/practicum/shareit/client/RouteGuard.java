@@ -0,0 +1,205 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Protects the gateway from one slow or failing server route. Three layers, checked before a call is sent:
+ * <ul>
+ *     <li>circuit breaker — opens when too many recent calls failed and lets a single probe through after a pause;</li>
+ *     <li>adaptive limit — AIMD: grows by one per limit's worth of fast successes, shrinks by a fixed factor
+ *     on a failure or a call slower than the latency threshold;</li>
+ *     <li>bulkhead — the adaptive limit never exceeds the route's own maximum, so a stuck route cannot take
+ *     every gateway thread.</li>
+ * </ul>
+ * A call that is not admitted fails immediately with {@link ServiceOverloadedException} instead of queueing.
+ */
+@Slf4j
+public class RouteGuard {
+    private static final double DECREASE_FACTOR = 0.9;
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String route;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Состояние выключателя, защищено this
+    private final boolean[] outcomes;
+    private int outcomePos;
+    private int outcomeCount;
+    private int failureCount;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final Counter rejectedOpen;
+    private final Counter rejectedLimit;
+    private final Timer upstreamTimer;
+
+    RouteGuard(String route, GuardSettings settings, MeterRegistry meterRegistry) {
+        this.route = route;
+        this.minLimit = settings.minConcurrency();
+        this.maxLimit = settings.maxConcurrency();
+        this.limit = Math.min(settings.initialConcurrency(), maxLimit);
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(settings.latencyThresholdMs());
+        this.outcomes = new boolean[settings.breakerWindow()];
+        this.minCalls = Math.min(settings.breakerMinCalls(), settings.breakerWindow());
+        this.failureRateThreshold = settings.breakerFailureRate();
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(settings.breakerOpenMs());
+
+        Gauge.builder("shareit.gateway.downstream.limit", this, guard -> guard.limit)
+                .tag("route", route).register(meterRegistry);
+        Gauge.builder("shareit.gateway.downstream.inflight", inFlight, AtomicInteger::get)
+                .tag("route", route).register(meterRegistry);
+        Gauge.builder("shareit.gateway.downstream.circuit", this, guard -> guard.state().ordinal())
+                .tag("route", route).register(meterRegistry);
+        this.rejectedOpen = Counter.builder("shareit.gateway.downstream.rejected")
+                .tag("route", route).tag("reason", "circuit-open").register(meterRegistry);
+        this.rejectedLimit = Counter.builder("shareit.gateway.downstream.rejected")
+                .tag("route", route).tag("reason", "concurrency-limit").register(meterRegistry);
+        this.upstreamTimer = Timer.builder("shareit.gateway.downstream.calls")
+                .tag("route", route).register(meterRegistry);
+    }
+
+    /**
+     * Runs the call if the route admits it. {@code failed} decides whether a returned response counts against
+     * the route; a thrown exception always does.
+     */
+    public <T> T call(Supplier<T> call, Predicate<T> failed) {
+        boolean probe = admit();
+        long start = System.nanoTime();
+        boolean failure = true;
+        try {
+            T result = call.get();
+            failure = failed.test(result);
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            upstreamTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            complete(failure, elapsed, probe);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private boolean admit() {
+        boolean probe = admitByBreaker(System.nanoTime());
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                if (probe) {
+                    releaseProbe();
+                }
+                rejectedLimit.increment();
+                throw new ServiceOverloadedException(route, "concurrency limit reached");
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return probe;
+            }
+        }
+    }
+
+    private synchronized boolean admitByBreaker(long now) {
+        if (state == State.OPEN && now - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && probeInFlight)) {
+            rejectedOpen.increment();
+            throw new ServiceOverloadedException(route, "circuit open");
+        }
+        if (state == State.HALF_OPEN) {
+            probeInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    private void complete(boolean failure, long elapsedNanos, boolean probe) {
+        int concurrent = inFlight.getAndDecrement();
+        adjustLimit(failure || elapsedNanos > latencyThresholdNanos, concurrent);
+        recordOutcome(failure, probe);
+    }
+
+    private synchronized void adjustLimit(boolean congested, int concurrent) {
+        if (congested) {
+            limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+        } else if (concurrent * 2 >= limit) {
+            // Растём только когда лимит реально используется, иначе простаивающий маршрут упрётся в максимум
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    private synchronized void recordOutcome(boolean failure, boolean probe) {
+        if (probe) {
+            probeInFlight = false;
+            if (failure) {
+                trip();
+            } else {
+                log.info("Route {}: probe succeeded, closing circuit", route);
+                state = State.CLOSED;
+                outcomePos = 0;
+                outcomeCount = 0;
+                failureCount = 0;
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[outcomePos]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomePos] = failure;
+        if (failure) {
+            failureCount++;
+        }
+        outcomePos = (outcomePos + 1) % outcomes.length;
+
+        if (outcomeCount >= minCalls && failureCount >= failureRateThreshold * outcomeCount) {
+            trip();
+        }
+    }
+
+    private void trip() {
+        log.warn("Route {}: opening circuit, {} of the last {} calls failed", route, failureCount, outcomeCount);
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link RouteGuard} per server route, all sharing the same settings.
+ */
+@Component
+public class RouteGuards {
+    private final GuardSettings settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteGuard> guards = new ConcurrentHashMap<>();
+
+    public RouteGuards(@Value("${shareit.downstream.min-concurrency:4}") int minConcurrency,
+                       @Value("${shareit.downstream.initial-concurrency:32}") int initialConcurrency,
+                       @Value("${shareit.downstream.max-concurrency:64}") int maxConcurrency,
+                       @Value("${shareit.downstream.latency-threshold-ms:1000}") long latencyThresholdMs,
+                       @Value("${shareit.downstream.breaker.window:50}") int breakerWindow,
+                       @Value("${shareit.downstream.breaker.min-calls:20}") int breakerMinCalls,
+                       @Value("${shareit.downstream.breaker.failure-rate:0.5}") double breakerFailureRate,
+                       @Value("${shareit.downstream.breaker.open-ms:10000}") long breakerOpenMs,
+                       MeterRegistry meterRegistry) {
+        this.settings = new GuardSettings(minConcurrency, initialConcurrency, maxConcurrency, latencyThresholdMs,
+                breakerWindow, breakerMinCalls, breakerFailureRate, breakerOpenMs);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public RouteGuard forRoute(String route) {
+        return guards.computeIfAbsent(route, name -> new RouteGuard(name, settings, meterRegistry));
+    }
+}
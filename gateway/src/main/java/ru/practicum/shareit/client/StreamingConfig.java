@@ -0,0 +1,42 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Relayed server-sent-event streams run on a pool of their own: each one holds a thread for as long as the
+ * subscriber stays connected, so they must not grow or exhaust the shared application task executor. The pool
+ * is deliberately not a bean: any {@code Executor} bean makes Boot skip creating its default one. Past
+ * {@code max-streams} open streams a new subscription is rejected rather than queued behind the others.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer, DisposableBean {
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final long requestTimeoutMs;
+
+    public StreamingConfig(@Value("${shareit.streaming.max-streams:256}") int maxStreams,
+                           @Value("${shareit.streaming.request-timeout-ms:360000}") long requestTimeoutMs) {
+        executor.setThreadNamePrefix("stream-");
+        executor.setCorePoolSize(Math.min(8, maxStreams));
+        executor.setMaxPoolSize(maxStreams);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // runs after Boot's own configurer, so this executor replaces the application one for async requests
+        configurer.setTaskExecutor(executor);
+        configurer.setDefaultTimeout(requestTimeoutMs);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -69,6 +69,14 @@ public class GatewayExceptionHandler {
         return new ErrorResponse("Forbidden", ex.getMessage());
     }
 
+    // 6. Перегрузка сервера: отказываем сразу, не копя потоки
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServiceOverloaded(ServiceOverloadedException ex) {
+        log.warn("Shedding request: {}", ex.getMessage());
+        return new ErrorResponse("Service Unavailable", ex.getMessage());
+    }
+
     // Record для ошибок валидации
     public record ValidationErrorResponse(
             String error,
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+    private final String route;
+
+    public ServiceOverloadedException(String route, String reason) {
+        super("Route " + route + " is unavailable: " + reason);
+        this.route = route;
+    }
+}
@@ -8,31 +8,39 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RouteGuards;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilterDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final ItemSearchCache searchCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      RouteGuards guards, ItemSearchCache searchCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .build(),
+                guards.forRoute("items")
         );
+        this.searchCache = searchCache;
     }
 
     public ResponseEntity<Object> addItem(long userId, ItemRequestDto itemRequestDto) {
-        return post("", userId, itemRequestDto);
+        return observed(post("", userId, itemRequestDto));
     }
 
     public ResponseEntity<Object> updateItem(long itemId, long userId, ItemRequestDto itemRequestDto) {
-        return patch("/" + itemId, userId, itemRequestDto);
+        return observed(patch("/" + itemId, userId, itemRequestDto));
     }
 
     public ResponseEntity<Object> getItem(long itemId, long userId) {
@@ -47,16 +55,46 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(String text, long userId, int from, int size) {
+    public ResponseEntity<Object> searchItems(String text, long userId, int from, int size, boolean fuzzy,
+                                              ItemSearchFilterDto filter) {
+        Map<String, Object> filters = filter.toParameters();
+        // free-for-a-period depends on booking approvals, which do not bump the catalog version
+        boolean cacheable = !filter.hasPeriod();
+        String cacheKey = ItemSearchCache.key(text, from, size, fuzzy, filters);
+        ResponseEntity<Object> cached = cacheable ? searchCache.get(cacheKey) : null;
+        if (cached != null) {
+            return cached;
+        }
+
+        Map<String, Object> parameters = new HashMap<>(filters);
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        parameters.put("fuzzy", fuzzy);
+        StringBuilder path = new StringBuilder("/search?text={text}&from={from}&size={size}&fuzzy={fuzzy}");
+        filters.keySet().forEach(name -> path.append('&').append(name).append("={").append(name).append('}'));
+        ResponseEntity<Object> response = observed(get(path.toString(), userId, parameters));
+        if (cacheable) {
+            searchCache.put(cacheKey, response);
+        }
+        return response;
+    }
+
+    public ResponseEntity<Object> suggestItems(String prefix, long userId, int size) {
         Map<String, Object> parameters = Map.of(
-                "text", text,
-                "from", from,
+                "prefix", prefix,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        // suggestions are the same for everyone, so concurrent identical keystrokes share one call
+        return getPublic("/suggest?prefix={prefix}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> addComment(long itemId, long userId, CommentRequestDto commentRequestDto) {
-        return post("/" + itemId + "/comment", userId, commentRequestDto);
+        return observed(post("/" + itemId + "/comment", userId, commentRequestDto));
+    }
+
+    private ResponseEntity<Object> observed(ResponseEntity<Object> response) {
+        searchCache.observe(response.getHeaders());
+        return response;
     }
 }
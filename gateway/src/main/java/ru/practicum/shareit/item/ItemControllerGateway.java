@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -11,6 +12,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilterDto;
 
 @RestController
 @RequestMapping("/items")
@@ -60,9 +62,21 @@ public class ItemControllerGateway {
             @RequestParam @NotBlank String text,
             @RequestHeader(USER_ID_HEADER) @Positive Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "10") @Positive Integer size) {
-        log.info("Gateway: Searching items by text: '{}' for user ID: {}", text, userId);
-        return itemClient.searchItems(text, userId, from, size);
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(defaultValue = "false") Boolean fuzzy,
+            @Valid ItemSearchFilterDto filter) {
+        log.info("Gateway: Searching items by text: '{}' for user ID: {}, fuzzy: {}, filter: {}",
+                text, userId, fuzzy, filter);
+        return itemClient.searchItems(text, userId, from, size, fuzzy, filter);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItems(
+            @RequestParam @NotBlank String prefix,
+            @RequestHeader(USER_ID_HEADER) @Positive Long userId,
+            @RequestParam(defaultValue = "10") @Positive @Max(50) Integer size) {
+        log.debug("Gateway: Suggesting items for prefix: '{}'", prefix);
+        return itemClient.suggestItems(prefix, userId, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * LRU + TTL cache of public item search responses. Search results do not depend on the caller, so entries are
+ * keyed on the normalized text, page, mode and filters only. The server stamps item writes and searches with a
+ * catalog version; seeing a newer one drops every entry, and only responses at the current version are stored.
+ */
+@Slf4j
+@Component
+public class ItemSearchCache {
+    public static final String CATALOG_VERSION_HEADER = "X-Item-Catalog-Version";
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final Map<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private long catalogVersion = Long.MIN_VALUE;
+
+    public ItemSearchCache(@Value("${shareit.search-cache.max-entries:1000}") int maxEntries,
+                           @Value("${shareit.search-cache.ttl-ms:60000}") long ttlMs,
+                           MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ItemSearchCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder("shareit.gateway.search.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("shareit.gateway.search.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * The server lower-cases the search text itself, so case is the only difference that is safe to fold.
+     */
+    public static String key(String text, int from, int size, boolean fuzzy, Map<String, Object> filters) {
+        return text.toLowerCase(Locale.ROOT) + '|' + from + '|' + size + (fuzzy ? "|fuzzy" : "") + '|' + filters;
+    }
+
+    public synchronized ResponseEntity<Object> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt < System.currentTimeMillis()) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.response;
+    }
+
+    public synchronized void put(String key, ResponseEntity<Object> response) {
+        Long version = catalogVersion(response.getHeaders());
+        if (version == null || version != catalogVersion || !response.getStatusCode().is2xxSuccessful()) {
+            return;
+        }
+        entries.put(key, new Entry(response, System.currentTimeMillis() + ttlMs));
+    }
+
+    /**
+     * Applies the invalidation hint carried by any item response.
+     */
+    public synchronized void observe(HttpHeaders headers) {
+        Long version = catalogVersion(headers);
+        if (version != null && version > catalogVersion) {
+            if (!entries.isEmpty()) {
+                log.debug("Item catalog version {} -> {}, dropping {} cached searches",
+                        catalogVersion, version, entries.size());
+            }
+            entries.clear();
+            catalogVersion = version;
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static Long catalogVersion(HttpHeaders headers) {
+        String value = headers.getFirst(CATALOG_VERSION_HEADER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Entry(ResponseEntity<Object> response, long expiresAt) {
+    }
+}
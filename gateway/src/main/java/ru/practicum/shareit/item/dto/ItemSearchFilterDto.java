@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Optional search filters, bound from the query parameters of the same names.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSearchFilterDto {
+    private Boolean available;
+
+    @Positive
+    private Long ownerId;
+
+    private Boolean answersRequest;
+
+    @PositiveOrZero
+    private Integer minComments;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime start;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime end;
+
+    @AssertTrue(message = "Search period needs both start and end, with start before end")
+    public boolean isPeriodValid() {
+        if (start == null && end == null) {
+            return true;
+        }
+        return start != null && end != null && start.isBefore(end);
+    }
+
+    public boolean hasPeriod() {
+        return start != null || end != null;
+    }
+
+    /**
+     * The filters that are set, in a fixed order, as query parameters for the server.
+     */
+    public Map<String, Object> toParameters() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (available != null) {
+            parameters.put("available", available);
+        }
+        if (ownerId != null) {
+            parameters.put("ownerId", ownerId);
+        }
+        if (answersRequest != null) {
+            parameters.put("answersRequest", answersRequest);
+        }
+        if (minComments != null) {
+            parameters.put("minComments", minComments);
+        }
+        if (start != null) {
+            parameters.put("start", start.toString());
+        }
+        if (end != null) {
+            parameters.put("end", end.toString());
+        }
+        return parameters;
+    }
+}
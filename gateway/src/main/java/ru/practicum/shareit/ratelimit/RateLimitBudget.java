@@ -0,0 +1,53 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Separate per-user budgets, so exhausting one (say, search) does not block the rest of the API.
+ * Defaults can be overridden with {@code shareit.rate-limit.<key>.capacity} and
+ * {@code shareit.rate-limit.<key>.refill-per-second}.
+ */
+enum RateLimitBudget {
+    // Полнотекстовый поиск — самый дорогой запрос для сервера
+    SEARCH("search", 10, 5),
+    // Создание и подтверждение бронирований
+    BOOKING_WRITE("booking-write", 5, 2),
+    WRITE("write", 20, 5),
+    READ("read", 40, 20);
+
+    private final String key;
+    private final long defaultCapacity;
+    private final double defaultRefillPerSecond;
+
+    RateLimitBudget(String key, long defaultCapacity, double defaultRefillPerSecond) {
+        this.key = key;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultRefillPerSecond = defaultRefillPerSecond;
+    }
+
+    String key() {
+        return key;
+    }
+
+    long defaultCapacity() {
+        return defaultCapacity;
+    }
+
+    double defaultRefillPerSecond() {
+        return defaultRefillPerSecond;
+    }
+
+    static RateLimitBudget of(String method, String path) {
+        boolean read = HttpMethod.GET.matches(method);
+        if (read && path.startsWith("/items/search")) {
+            return SEARCH;
+        }
+        if (read) {
+            return READ;
+        }
+        return path.startsWith("/bookings") ? BOOKING_WRITE : WRITE;
+    }
+
+    record Limits(long capacity, double refillPerSecond) {
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket: the token count and refill time form one immutable state swapped with CAS,
+ * so concurrent requests of the same user never block each other.
+ */
+class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(RateLimitBudget.Limits limits, long now) {
+        this.capacity = limits.capacity();
+        this.tokensPerNano = limits.refillPerSecond() / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Takes one token if there is one.
+     *
+     * @return 0 if the request may proceed, otherwise how many nanoseconds until a token is available
+     */
+    long tryConsume(long now) {
+        while (true) {
+            State current = state.get();
+            double tokens = Math.min(capacity, current.tokens + (now - current.refilledAt) * tokensPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    long lastUsedAt() {
+        return state.get().refilledAt;
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+}
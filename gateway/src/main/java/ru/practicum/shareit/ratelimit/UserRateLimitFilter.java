@@ -0,0 +1,123 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user token buckets checked before a request reaches the controllers, so a single user flooding the API
+ * gets 429s without using server capacity. Buckets are keyed on the parsed user id, so "1" and "01" share one;
+ * requests without a numeric {@code X-Sharer-User-Id} are left to the controllers, which reject them.
+ * Buckets live in a sharded map; shards are swept for idle buckets one at a time on the request path, and since
+ * a bucket idle that long is full again, evicting it changes nothing for the user.
+ */
+@Slf4j
+@Component
+public class UserRateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int SHARDS = 16;
+
+    private final boolean enabled;
+    private final long idleNanos;
+    private final Map<RateLimitBudget, RateLimitBudget.Limits> limits = new EnumMap<>(RateLimitBudget.class);
+    private final Map<RateLimitBudget, Counter> rejected = new EnumMap<>(RateLimitBudget.class);
+    private final List<ConcurrentHashMap<BucketKey, TokenBucket>> shards = new ArrayList<>(SHARDS);
+    private final AtomicLong nextSweepAt;
+    private final AtomicInteger sweepCursor = new AtomicInteger();
+
+    public UserRateLimitFilter(@Value("${shareit.rate-limit.enabled:true}") boolean enabled,
+                               @Value("${shareit.rate-limit.idle-ms:600000}") long idleMs,
+                               Environment environment,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMs);
+        for (RateLimitBudget budget : RateLimitBudget.values()) {
+            String prefix = "shareit.rate-limit." + budget.key();
+            limits.put(budget, new RateLimitBudget.Limits(
+                    environment.getProperty(prefix + ".capacity", Long.class, budget.defaultCapacity()),
+                    environment.getProperty(prefix + ".refill-per-second", Double.class,
+                            budget.defaultRefillPerSecond())));
+            rejected.put(budget, Counter.builder("shareit.gateway.rate-limit.rejected")
+                    .tag("budget", budget.key())
+                    .register(meterRegistry));
+        }
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(new ConcurrentHashMap<>());
+        }
+        this.nextSweepAt = new AtomicLong(System.nanoTime() + idleNanos / SHARDS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getHeader(USER_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long userId;
+        try {
+            userId = Long.parseLong(request.getHeader(USER_HEADER).trim());
+        } catch (NumberFormatException e) {
+            chain.doFilter(request, response);
+            return;
+        }
+        RateLimitBudget budget = RateLimitBudget.of(request.getMethod(), request.getRequestURI());
+        long now = System.nanoTime();
+        sweepIfDue(now);
+
+        BucketKey key = new BucketKey(userId, budget);
+        TokenBucket bucket = shardOf(key).computeIfAbsent(key, k -> new TokenBucket(limits.get(budget), now));
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        rejected.get(budget).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+        log.warn("Rate limit exceeded: user={}, budget={}, retry after {}s", userId, budget.key(), retryAfterSeconds);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded for "
+                + budget.key() + " requests, retry in " + retryAfterSeconds + " s\"}");
+    }
+
+    private ConcurrentHashMap<BucketKey, TokenBucket> shardOf(BucketKey key) {
+        return shards.get(Math.floorMod(key.hashCode(), SHARDS));
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweepAt.get();
+        if (now < due || !nextSweepAt.compareAndSet(due, now + idleNanos / SHARDS)) {
+            return;
+        }
+        ConcurrentHashMap<BucketKey, TokenBucket> shard = shards.get(Math.floorMod(sweepCursor.getAndIncrement(), SHARDS));
+        shard.values().removeIf(bucket -> now - bucket.lastUsedAt() > idleNanos);
+    }
+
+    private record BucketKey(long userId, RateLimitBudget budget) {
+    }
+}
@@ -5,11 +5,15 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/requests")
 @RequiredArgsConstructor
@@ -42,6 +46,13 @@ public class ItemRequestControllerGateway {
         return requestClient.getAllRequests(userId, from, size);
     }
 
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> subscribeToAnswers(
+            @RequestHeader("X-Sharer-User-Id") @Positive Long userId) throws IOException {
+        log.info("Gateway: Subscribing user ID: {} to request answers", userId);
+        return requestClient.subscribeToAnswers(userId);
+    }
+
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> getRequestById(
             @RequestHeader("X-Sharer-User-Id") @Positive Long userId,
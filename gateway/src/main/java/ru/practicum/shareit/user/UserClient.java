@@ -8,6 +8,8 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RouteGuards;
+import ru.practicum.shareit.item.ItemSearchCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
@@ -15,14 +17,19 @@ import ru.practicum.shareit.user.dto.UserUpdateDto;
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
+    private final ItemSearchCache searchCache;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      RouteGuards guards, ItemSearchCache searchCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .build(),
+                guards.forRoute("users")
         );
+        this.searchCache = searchCache;
     }
 
     public ResponseEntity<Object> createUser(UserDto userDto) {
@@ -41,7 +48,12 @@ public class UserClient extends BaseClient {
         return get("");
     }
 
+    /**
+     * The user's items go with them, so the response carries a new item catalog version for the search cache.
+     */
     public ResponseEntity<Object> deleteUser(long userId) {
-        return delete("/" + userId);
+        ResponseEntity<Object> response = delete("/" + userId);
+        searchCache.observe(response.getHeaders());
+        return response;
     }
 }
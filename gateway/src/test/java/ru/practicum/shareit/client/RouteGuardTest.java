@@ -0,0 +1,136 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteGuardTest {
+    private static final long NEVER_SLOW_MS = 60_000;
+
+    @Test
+    void breaker_ShouldOpenOnFailureRateAndRejectWithoutCalling() {
+        RouteGuard guard = guard(4, 8, 8, 4, 4, 60_000);
+        succeed(guard);
+        succeed(guard);
+        fail(guard);
+        assertEquals(RouteGuard.State.CLOSED, guard.state());
+        fail(guard);
+
+        assertEquals(RouteGuard.State.OPEN, guard.state());
+        AtomicInteger calls = new AtomicInteger();
+        ServiceOverloadedException rejected = assertThrows(ServiceOverloadedException.class,
+                () -> guard.call(calls::incrementAndGet, result -> false));
+        assertTrue(rejected.getMessage().contains("circuit open"));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void breaker_ShouldLetOneProbeThroughWhenHalfOpenAndCloseOnSuccess() {
+        RouteGuard guard = guard(4, 8, 8, 2, 2, 0);
+        fail(guard);
+        fail(guard);
+        assertEquals(RouteGuard.State.OPEN, guard.state());
+
+        String result = guard.call(() -> {
+            assertEquals(RouteGuard.State.HALF_OPEN, guard.state());
+            // пока проба в полёте, остальные вызовы отклоняются
+            assertThrows(ServiceOverloadedException.class, () -> succeed(guard));
+            return "probe";
+        }, response -> false);
+
+        assertEquals("probe", result);
+        assertEquals(RouteGuard.State.CLOSED, guard.state());
+        // окно исходов очищено: одного нового отказа мало, чтобы снова открыться
+        fail(guard);
+        assertEquals(RouteGuard.State.CLOSED, guard.state());
+    }
+
+    @Test
+    void breaker_ShouldReopenWhenProbeFails() {
+        RouteGuard guard = guard(4, 8, 8, 2, 2, 0);
+        fail(guard);
+        fail(guard);
+
+        fail(guard);
+
+        assertEquals(RouteGuard.State.OPEN, guard.state());
+    }
+
+    @Test
+    void breaker_ShouldCountThrownExceptionsAsFailures() {
+        RouteGuard guard = guard(4, 8, 8, 2, 2, 60_000);
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.call(() -> {
+                throw new IllegalStateException("connection refused");
+            }, result -> false));
+        }
+
+        assertEquals(RouteGuard.State.OPEN, guard.state());
+        assertEquals(0, guard.inFlight());
+    }
+
+    @Test
+    void limit_ShouldShrinkOnFailuresDownToMinimum() {
+        RouteGuard guard = guard(4, 10, 16, 100, 100, 60_000);
+
+        fail(guard);
+        assertEquals(9, guard.limit());
+        for (int i = 0; i < 20; i++) {
+            fail(guard);
+        }
+
+        assertEquals(4, guard.limit());
+        assertEquals(RouteGuard.State.CLOSED, guard.state());
+    }
+
+    @Test
+    void limit_ShouldGrowOnlyWhileItIsUsed() {
+        RouteGuard guard = guard(4, 4, 8, 100, 100, 60_000);
+        for (int i = 0; i < 20; i++) {
+            succeed(guard);
+        }
+        assertEquals(4, guard.limit());
+
+        for (int i = 0; i < 8; i++) {
+            // самый вложенный вызов завершается при трёх вызовах в полёте, это больше половины лимита
+            guard.call(() -> guard.call(() -> succeed(guard), result -> false), result -> false);
+        }
+
+        assertEquals(5, guard.limit());
+    }
+
+    @Test
+    void limit_ShouldRejectCallsOverItWithoutQueueing() {
+        RouteGuard guard = guard(1, 1, 1, 100, 100, 60_000);
+
+        guard.call(() -> {
+            ServiceOverloadedException rejected = assertThrows(ServiceOverloadedException.class,
+                    () -> succeed(guard));
+            assertTrue(rejected.getMessage().contains("concurrency limit"));
+            return null;
+        }, result -> false);
+
+        assertEquals(0, guard.inFlight());
+        succeed(guard);
+    }
+
+    private static RouteGuard guard(int min, int initial, int max, int window, int minCalls, long openMs) {
+        GuardSettings settings = new GuardSettings(min, initial, max, NEVER_SLOW_MS, window, minCalls, 0.5, openMs);
+        return new RouteGuard("items", settings, new SimpleMeterRegistry());
+    }
+
+    private static Boolean succeed(RouteGuard guard) {
+        return guard.call(() -> true, ok -> !ok);
+    }
+
+    private static void fail(RouteGuard guard) {
+        guard.call(() -> false, ok -> !ok);
+    }
+}
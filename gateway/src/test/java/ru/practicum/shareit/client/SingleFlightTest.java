@@ -0,0 +1,123 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+    private static final int FOLLOWERS = 4;
+
+    private final SingleFlight<String> flight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void execute_ShouldShareLeaderResultWithFollowers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("key", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return "result-" + calls.incrementAndGet();
+            }));
+            List<Future<String>> followers = startFollowers(executor);
+            release.countDown();
+
+            assertEquals("result-1", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("result-1", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldRethrowLeaderFailureToWaitingFollowersAndForgetIt() throws Exception {
+        IllegalStateException failure = new IllegalStateException("server down");
+        ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("key", () -> {
+                leaderStarted.countDown();
+                await(release);
+                calls.incrementAndGet();
+                throw failure;
+            }));
+            List<Future<String>> followers = startFollowers(executor);
+            release.countDown();
+
+            assertSame(failure, cause(leader));
+            for (Future<String> follower : followers) {
+                assertSame(failure, cause(follower));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // исход не кэшируется: следующий вызов идёт заново
+        assertEquals("fresh", flight.execute("key", () -> "fresh"));
+    }
+
+    @Test
+    void execute_ShouldNotShareBetweenDifferentKeys() {
+        String outer = flight.execute("a", () -> "a-" + flight.execute("b", () -> "b"));
+
+        assertEquals("a-b", outer);
+    }
+
+    /**
+     * Followers are started once the leader is running, and returned once each is parked waiting for it.
+     */
+    private List<Future<String>> startFollowers(ExecutorService executor) throws InterruptedException {
+        await(leaderStarted);
+        List<Thread> threads = new ArrayList<>();
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            CountDownLatch started = new CountDownLatch(1);
+            Thread[] thread = new Thread[1];
+            followers.add(executor.submit(() -> {
+                thread[0] = Thread.currentThread();
+                started.countDown();
+                return flight.execute("key", () -> "follower-" + calls.incrementAndGet());
+            }));
+            started.await();
+            threads.add(thread[0]);
+        }
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+        }
+        return followers;
+    }
+
+    private static Throwable cause(Future<String> future) {
+        return assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS)).getCause();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
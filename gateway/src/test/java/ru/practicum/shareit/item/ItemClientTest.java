@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.client.RouteGuards;
+import ru.practicum.shareit.item.dto.ItemSearchFilterDto;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ItemClientTest {
+    private static final String SERVER_URL = "http://server";
+
+    private MockRestServiceServer server;
+    private ItemClient itemClient;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        RouteGuards guards = new RouteGuards(4, 32, 64, 1000, 50, 20, 0.5, 10000, meterRegistry);
+        itemClient = new ItemClient(SERVER_URL, new RestTemplateBuilder(customizer), guards,
+                new ItemSearchCache(100, 60000, meterRegistry));
+        server = customizer.getServer();
+    }
+
+    @Test
+    void searchItems_shouldServeRepeatedSearchFromCache() {
+        server.expect(ExpectedCount.once(),
+                        requestTo(SERVER_URL + "/items/search?text=drill&from=0&size=10&fuzzy=false"))
+                .andExpect(method(GET))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(catalogVersion(1)));
+
+        itemClient.searchItems("drill", 1L, 0, 10, false, new ItemSearchFilterDto());
+        itemClient.searchItems("drill", 2L, 0, 10, false, new ItemSearchFilterDto());
+
+        server.verify();
+    }
+
+    @Test
+    void searchItems_withPeriod_shouldAlwaysAskServer() {
+        // одобрение брони не меняет версию каталога, поэтому кэш не узнал бы, что вещь стала занята
+        ItemSearchFilterDto filter = ItemSearchFilterDto.builder()
+                .start(LocalDateTime.of(2030, 1, 1, 10, 0))
+                .end(LocalDateTime.of(2030, 1, 2, 10, 0))
+                .build();
+        server.expect(ExpectedCount.twice(), requestTo(SERVER_URL
+                        + "/items/search?text=drill&from=0&size=10&fuzzy=false"
+                        + "&start=2030-01-01T10%3A00&end=2030-01-02T10%3A00"))
+                .andExpect(method(GET))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(catalogVersion(1)));
+
+        itemClient.searchItems("drill", 1L, 0, 10, false, filter);
+        itemClient.searchItems("drill", 1L, 0, 10, false, filter);
+
+        server.verify();
+    }
+
+    private static HttpHeaders catalogVersion(long version) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ItemSearchCache.CATALOG_VERSION_HEADER, String.valueOf(version));
+        return headers;
+    }
+}
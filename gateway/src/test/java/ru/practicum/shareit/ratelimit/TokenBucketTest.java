@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryConsume_ShouldAllowBurstUpToCapacityThenReportWait() {
+        TokenBucket bucket = new TokenBucket(new RateLimitBudget.Limits(2, 1), 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+
+        assertEquals(SECOND, bucket.tryConsume(0));
+        assertEquals(SECOND / 4, bucket.tryConsume(SECOND * 3 / 4));
+    }
+
+    @Test
+    void tryConsume_ShouldRefillAtRateAndNotBeyondCapacity() {
+        TokenBucket bucket = new TokenBucket(new RateLimitBudget.Limits(2, 2), 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+        assertEquals(SECOND / 2, bucket.tryConsume(SECOND / 2));
+
+        // долгий простой наполняет ведро только до ёмкости
+        long later = 100 * SECOND;
+        assertEquals(0, bucket.tryConsume(later));
+        assertEquals(0, bucket.tryConsume(later));
+        assertEquals(SECOND / 2, bucket.tryConsume(later));
+        assertEquals(later, bucket.lastUsedAt());
+    }
+
+    @Test
+    void tryConsume_RejectedRequest_ShouldNotUseUpRefill() {
+        TokenBucket bucket = new TokenBucket(new RateLimitBudget.Limits(1, 1), 0);
+        bucket.tryConsume(0);
+
+        for (int i = 1; i < 10; i++) {
+            bucket.tryConsume(i * SECOND / 10);
+        }
+
+        assertEquals(0, bucket.tryConsume(SECOND));
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserRateLimitFilterTest {
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("shareit.rate-limit.search.capacity", "2")
+            .withProperty("shareit.rate-limit.search.refill-per-second", "0.001");
+
+    @Test
+    void filter_ShouldRejectOnceBudgetIsExhaustedAndKeepOtherBudgetsAndUsers() throws Exception {
+        UserRateLimitFilter filter = new UserRateLimitFilter(true, 600_000, environment, new SimpleMeterRegistry());
+
+        assertEquals(HttpStatus.OK.value(), send(filter, "GET", "/items/search", "1").getStatus());
+        assertEquals(HttpStatus.OK.value(), send(filter, "GET", "/items/search", "1").getStatus());
+        MockHttpServletResponse rejected = send(filter, "GET", "/items/search", "1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK.value(), send(filter, "GET", "/items/1", "1").getStatus());
+        assertEquals(HttpStatus.OK.value(), send(filter, "GET", "/items/search", "2").getStatus());
+    }
+
+    @Test
+    void filter_ShouldLeaveAnonymousRequestsToControllers() throws Exception {
+        UserRateLimitFilter filter = new UserRateLimitFilter(true, 600_000, environment, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK.value(), send(filter, "GET", "/items/search", null).getStatus());
+        }
+    }
+
+    @Test
+    void filter_ShouldShareBucketBetweenSpellingsOfSameUserId() throws Exception {
+        UserRateLimitFilter filter = new UserRateLimitFilter(true, 600_000, environment, new SimpleMeterRegistry());
+
+        assertEquals(HttpStatus.OK.value(), send(filter, "GET", "/items/search", "1").getStatus());
+        assertEquals(HttpStatus.OK.value(), send(filter, "GET", "/items/search", "01").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(),
+                send(filter, "GET", "/items/search", " 001").getStatus());
+    }
+
+    @Test
+    void filter_ShouldLeaveNonNumericUserIdsToControllers() throws Exception {
+        UserRateLimitFilter filter = new UserRateLimitFilter(true, 600_000, environment, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK.value(), send(filter, "GET", "/items/search", "user-" + i).getStatus());
+        }
+    }
+
+    @Test
+    void sweep_ShouldDropIdleBucketsSoUserStartsWithFullBudget() throws Exception {
+        UserRateLimitFilter filter = new UserRateLimitFilter(true, 1, environment, new SimpleMeterRegistry());
+        send(filter, "GET", "/items/search", "1");
+        send(filter, "GET", "/items/search", "1");
+        Thread.sleep(5);
+
+        // каждый запрос подметает по одному шарду, поэтому нужен полный круг
+        for (int i = 0; i < 16; i++) {
+            Thread.sleep(1);
+            send(filter, "GET", "/users", "2");
+        }
+
+        MockHttpServletResponse response = send(filter, "GET", "/items/search", "1");
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static MockHttpServletResponse send(UserRateLimitFilter filter, String method, String uri,
+                                                String userId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.request;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.client.RouteGuards;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemRequestClientTest {
+    private final CountDownLatch released = new CountDownLatch(1);
+    private HttpServer server;
+    private ItemRequestClient requestClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // сервер отдаёт одно событие и замолкает, не закрывая поток
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/requests/subscribe", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            body.write("data: hello\n\n".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+
+        RouteGuards guards = new RouteGuards(4, 32, 64, 1000, 50, 20, 0.5, 10000, new SimpleMeterRegistry());
+        requestClient = new ItemRequestClient("http://localhost:" + server.getAddress().getPort(),
+                new RestTemplateBuilder(), guards, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void subscribeToAnswers_shouldGiveUpOnSilentUpstream() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = requestClient.subscribeToAnswers(1L);
+        ByteArrayOutputStream relayed = new ByteArrayOutputStream();
+
+        long started = System.nanoTime();
+        assertThrows(IOException.class, () -> response.getBody().writeTo(relayed));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("data: hello\n\n", relayed.toString(StandardCharsets.UTF_8));
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started) < 5);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.client.RouteGuards;
+import ru.practicum.shareit.item.ItemSearchCache;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+class UserClientTest {
+    private static final String SERVER_URL = "http://server";
+
+    private MockRestServiceServer server;
+    private ItemSearchCache searchCache;
+    private UserClient userClient;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        RouteGuards guards = new RouteGuards(4, 32, 64, 1000, 50, 20, 0.5, 10000, meterRegistry);
+        searchCache = new ItemSearchCache(100, 60000, meterRegistry);
+        userClient = new UserClient(SERVER_URL, new RestTemplateBuilder(customizer), guards, searchCache);
+        server = customizer.getServer();
+    }
+
+    @Test
+    void deleteUser_shouldDropCachedSearchesOnNewCatalogVersion() {
+        String key = ItemSearchCache.key("drill", 0, 10, false, Map.of());
+        searchCache.observe(catalogVersion(1));
+        searchCache.put(key, new ResponseEntity<>("[]", catalogVersion(1), HttpStatus.OK));
+        assertNotNull(searchCache.get(key));
+        server.expect(ExpectedCount.once(), requestTo(SERVER_URL + "/users/1"))
+                .andExpect(method(DELETE))
+                .andRespond(withStatus(HttpStatus.NO_CONTENT).contentType(MediaType.APPLICATION_JSON)
+                        .headers(catalogVersion(2)));
+
+        userClient.deleteUser(1L);
+
+        server.verify();
+        assertNull(searchCache.get(key));
+    }
+
+    private static HttpHeaders catalogVersion(long version) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ItemSearchCache.CATALOG_VERSION_HEADER, String.valueOf(version));
+        return headers;
+    }
+}
@@ -33,7 +33,38 @@ public class Booking {
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
 
+    /**
+     * Copy of {@code item.owner.id}, so owner queries do not need to join items.
+     */
+    @Column(name = "item_owner_id", nullable = false)
+    private Long itemOwnerId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private BookingStatus status;
-}
\ No newline at end of file
+
+    /**
+     * Lifecycle phase relative to the current time. Set on every write and advanced
+     * afterwards by {@link BookingPhaseRollover} as bookings start and end.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false)
+    private BookingPhase phase;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @PrePersist
+    void beforeInsert() {
+        if (itemOwnerId == null && item != null) {
+            itemOwnerId = item.getOwner().getId();
+        }
+        refreshPhase();
+    }
+
+    @PreUpdate
+    void refreshPhase() {
+        phase = BookingPhase.of(start, end, LocalDateTime.now());
+    }
+}
@@ -4,8 +4,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStateSummaryDto;
 
 import java.util.List;
 
@@ -34,11 +38,23 @@ public class BookingController {
         return bookingService.approveBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/approve")
+    public List<BookingDecisionResultDto> approveBookings(
+            @RequestBody List<BookingDecisionDto> decisions,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("Server: Processing {} booking decisions", decisions.size());
+        return bookingService.approveBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getBookingById(
             @PathVariable Long bookingId,
-            @RequestHeader("X-Sharer-User-Id") Long userId) {
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            WebRequest request) {
         log.debug("Server: Getting booking {}", bookingId);
+        if (request.checkNotModified(bookingService.getBookingETag(bookingId, userId))) {
+            return null;
+        }
         return bookingService.getBookingById(bookingId, userId);
     }
 
@@ -61,4 +77,12 @@ public class BookingController {
         log.debug("Server: Getting bookings for owner {}", ownerId);
         return bookingService.getAllBookingsForOwner(ownerId, state, from, size);
     }
+
+    @GetMapping("/owner/summary")
+    public List<BookingStateSummaryDto> getOwnerBookingSummary(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestParam Integer size) {
+        log.debug("Server: Getting booking summary for owner {}", ownerId);
+        return bookingService.getOwnerBookingSummary(ownerId, size);
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+public enum BookingPhase {
+    FUTURE,     // Ещё не началось
+    CURRENT,    // Идёт сейчас
+    PAST;       // Завершено
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (now.isBefore(start)) {
+            return FUTURE;
+        }
+        return now.isBefore(end) ? CURRENT : PAST;
+    }
+}
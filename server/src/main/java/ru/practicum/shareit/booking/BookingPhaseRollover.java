@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Advances {@link Booking#getPhase()} as bookings start and end, so state queries can filter
+ * by phase equality instead of comparing start/end with the current time.
+ */
+@Slf4j
+@Component
+public class BookingPhaseRollover {
+    private static final int BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingPhaseRollover(BookingRepository bookingRepository, PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.phase-rollover-delay-ms:30000}",
+            initialDelayString = "${shareit.booking.phase-rollover-delay-ms:30000}")
+    public void rollover() {
+        LocalDateTime now = LocalDateTime.now();
+
+        int ended = advance(BookingPhase.PAST,
+                page -> bookingRepository.findIdsEndedOutsidePhase(BookingPhase.PAST, now, page));
+        int started = advance(BookingPhase.CURRENT,
+                page -> bookingRepository.findIdsStartedInPhase(BookingPhase.FUTURE, now, page));
+
+        if (ended > 0 || started > 0) {
+            log.debug("Booking phases advanced: {} started, {} ended", started, ended);
+        }
+    }
+
+    /**
+     * Moves bookings into {@code target} batch by batch, each batch in its own short transaction.
+     */
+    private int advance(BookingPhase target, Function<PageRequest, List<Long>> dueIds) {
+        int total = 0;
+        int updated;
+        do {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Long> ids = dueIds.apply(PageRequest.of(0, BATCH_SIZE));
+                return ids.isEmpty() ? 0 : bookingRepository.updatePhase(ids, target);
+            });
+            updated = batch != null ? batch : 0;
+            total += updated;
+        } while (updated == BATCH_SIZE);
+        return total;
+    }
+}
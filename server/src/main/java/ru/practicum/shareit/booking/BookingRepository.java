@@ -2,45 +2,53 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerId(Long bookerId, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStartBeforeAndEndAfter(
-            Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    // every caller maps the booking to a DTO with its item and booker
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
-    Page<Booking> findByBookerIdAndEndBefore(
-            Long bookerId, LocalDateTime end, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Page<Booking> findByBookerId(Long bookerId, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStartAfter(
-            Long bookerId, LocalDateTime start, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Page<Booking> findByBookerIdAndPhase(
+            Long bookerId, BookingPhase phase, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     Page<Booking> findByBookerIdAndStatus(
             Long bookerId, BookingStatus status, Pageable pageable);
 
+    // "ItemOwnerId" resolves to the denormalized Booking.itemOwnerId column, not to item.owner.id
+    @EntityGraph(attributePaths = {"item", "booker"})
     Page<Booking> findByItemOwnerId(Long ownerId, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdAndEndBefore(
-            Long ownerId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdAndStartAfter(
-            Long ownerId, LocalDateTime start, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Page<Booking> findByItemOwnerIdAndPhase(
+            Long ownerId, BookingPhase phase, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     Page<Booking> findByItemOwnerIdAndStatus(
             Long ownerId, BookingStatus status, Pageable pageable);
 
+    long countByItemId(Long itemId);
+
+    long countByItemIdAndStatus(Long itemId, BookingStatus status);
+
     Optional<Booking> findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(
             Long itemId, LocalDateTime before, BookingStatus status);
 
@@ -54,4 +62,65 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "AND b.end < CURRENT_TIMESTAMP")
     List<Booking> findCompletedBookingsForComment(@Param("itemId") Long itemId,
                                                   @Param("userId") Long userId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT b.version AS version, i.version AS itemVersion, u.version AS bookerVersion, " +
+            "u.id AS bookerId, b.itemOwnerId AS itemOwnerId " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u WHERE b.id = :bookingId")
+    Optional<BookingVersionView> findVersionViewById(@Param("bookingId") Long bookingId);
+
+    /**
+     * One row per owner booking that is among the newest {@code limit} bookings of at least one
+     * dashboard state, together with the per-state totals computed over all owner bookings.
+     */
+    @Query(value = "SELECT r.id AS id, r.time_state AS timeState, r.status AS status, " +
+            "r.total_count AS totalCount, r.time_count AS timeCount, r.status_count AS statusCount, " +
+            "r.rn_all AS rnAll, r.rn_time AS rnTime, r.rn_status AS rnStatus " +
+            "FROM (" +
+            "  SELECT b.id, b.start_date, b.phase AS time_state, b.status, " +
+            "    COUNT(*) OVER () AS total_count, " +
+            "    COUNT(*) OVER (PARTITION BY b.phase) AS time_count, " +
+            "    COUNT(*) OVER (PARTITION BY b.status) AS status_count, " +
+            "    ROW_NUMBER() OVER (ORDER BY b.start_date DESC) AS rn_all, " +
+            "    ROW_NUMBER() OVER (PARTITION BY b.phase ORDER BY b.start_date DESC) AS rn_time, " +
+            "    ROW_NUMBER() OVER (PARTITION BY b.status ORDER BY b.start_date DESC) AS rn_status " +
+            "  FROM bookings b " +
+            "  WHERE b.item_owner_id = :ownerId" +
+            ") r " +
+            "WHERE r.rn_all <= :limit OR r.rn_time <= :limit OR r.rn_status <= :limit " +
+            "ORDER BY r.start_date DESC",
+            nativeQuery = true)
+    List<BookingStateRow> findOwnerStateSummaryRows(@Param("ownerId") Long ownerId,
+                                                    @Param("limit") int limit);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "AND b.start < :end AND b.end > :start")
+    Set<Long> findItemIdsBookedBetween(@Param("itemIds") Collection<Long> itemIds,
+                                       @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.phase = :phase AND b.start <= :now")
+    List<Long> findIdsStartedInPhase(@Param("phase") BookingPhase phase,
+                                     @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.phase <> :phase AND b.end <= :now")
+    List<Long> findIdsEndedOutsidePhase(@Param("phase") BookingPhase phase,
+                                        @Param("now") LocalDateTime now,
+                                        Pageable pageable);
+
+    /**
+     * Bulk status change for bulk approvals; only bookings still WAITING are touched.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id IN :ids AND b.status = 'WAITING'")
+    int updateWaitingStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.phase = :phase WHERE b.id IN :ids")
+    int updatePhase(@Param("ids") Collection<Long> ids, @Param("phase") BookingPhase phase);
 }
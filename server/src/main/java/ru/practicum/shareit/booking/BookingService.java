@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStateSummaryDto;
 
 import java.util.List;
 
@@ -10,9 +13,15 @@ public interface BookingService {
 
     BookingResponseDto approveBooking(Long bookingId, Long ownerId, boolean approved);
 
+    List<BookingDecisionResultDto> approveBookings(Long ownerId, List<BookingDecisionDto> decisions);
+
     BookingResponseDto getBookingById(Long bookingId, Long userId);
 
+    String getBookingETag(Long bookingId, Long userId);
+
     List<BookingResponseDto> getAllBookingsForUser(Long userId, String state, int from, int size);
 
     List<BookingResponseDto> getAllBookingsForOwner(Long ownerId, String state, int from, int size);
+
+    List<BookingStateSummaryDto> getOwnerBookingSummary(Long ownerId, int size);
 }
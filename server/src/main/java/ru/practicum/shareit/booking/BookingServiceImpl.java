@@ -7,29 +7,40 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStateSummaryDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.SelfBookingException;
 import ru.practicum.shareit.exception.UnavailableItemException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemBookingStatsService;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
-import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_BULK_DECISIONS = 100;
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
     private final BookingMapper bookingMapper;
+    private final ItemBookingStatsService itemBookingStatsService;
+    private final OutboxService outboxService;
 
     @Override
     @Transactional
@@ -44,12 +55,16 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingMapper.toBooking(bookingRequestDto);
         booking.setBooker(booker);
         booking.setItem(item);
+        booking.setItemOwnerId(item.getOwner().getId());
         booking.setStatus(BookingStatus.WAITING);
 
         Booking savedBooking = bookingRepository.save(booking);
+        itemBookingStatsService.onBookingCreated(savedBooking);
         log.debug("Created booking: ID={}", savedBooking.getId());
 
-        return bookingMapper.toBookingResponseDto(savedBooking);
+        BookingResponseDto response = bookingMapper.toBookingResponseDto(savedBooking);
+        outboxService.record(OutboxEventType.BOOKING_CREATED, savedBooking.getId(), response);
+        return response;
     }
 
     @Override
@@ -65,9 +80,76 @@ public class BookingServiceImpl implements BookingService {
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
+        if (approved) {
+            itemBookingStatsService.onBookingApproved(updatedBooking);
+        }
         log.debug("Booking {} status updated", bookingId);
 
-        return bookingMapper.toBookingResponseDto(updatedBooking);
+        BookingResponseDto response = bookingMapper.toBookingResponseDto(updatedBooking);
+        outboxService.record(OutboxEventType.BOOKING_STATUS_CHANGED, bookingId, response);
+        return response;
+    }
+
+    /**
+     * Applies many owner decisions at once: bookings are loaded with one query, and the status changes
+     * are written with one {@code UPDATE ... WHERE id IN} per target status. Decisions that fail
+     * validation are reported per booking and do not affect the rest.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approveBookings(Long ownerId, List<BookingDecisionDto> decisions) {
+        if (decisions == null || decisions.isEmpty()) {
+            throw new ValidationException("At least one decision is required");
+        }
+        if (decisions.size() > MAX_BULK_DECISIONS) {
+            throw new ValidationException("No more than " + MAX_BULK_DECISIONS + " decisions per request");
+        }
+        log.info("Applying {} booking decision(s) by owner ID: {}", decisions.size(), ownerId);
+
+        Map<Long, Booking> bookings = bookingRepository.findByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<BookingStatus, List<Booking>> accepted = new EnumMap<>(BookingStatus.class);
+        Set<Long> seen = new HashSet<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        int skipped = 0;
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            String error = checkDecision(decision, booking, ownerId, seen);
+            if (error != null) {
+                results.add(BookingDecisionResultDto.builder().bookingId(bookingId).error(error).build());
+                skipped++;
+                continue;
+            }
+            BookingStatus status = decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            accepted.computeIfAbsent(status, s -> new ArrayList<>()).add(booking);
+            results.add(BookingDecisionResultDto.builder().bookingId(bookingId).status(status).build());
+        }
+
+        accepted.forEach((status, batch) -> applyDecisions(status, batch));
+        log.debug("Bulk decisions by owner {}: {} applied, {} skipped",
+                ownerId, decisions.size() - skipped, skipped);
+
+        return results;
+    }
+
+    /**
+     * Strong validator for {@link #getBookingById}: the booking version together with the versions of the
+     * embedded item and booker. Access is checked exactly as for the full read.
+     */
+    @Override
+    public String getBookingETag(Long bookingId, Long userId) {
+        BookingVersionView view = bookingRepository.findVersionViewById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking not found with id: " + bookingId));
+        if (!view.getBookerId().equals(userId) && !view.getItemOwnerId().equals(userId)) {
+            throw new NotFoundException("User not authorized to view this booking");
+        }
+        return "\"booking-" + bookingId + "-" + view.getVersion()
+                + "-" + view.getItemVersion() + "-" + view.getBookerVersion() + "\"";
     }
 
     @Override
@@ -111,16 +193,56 @@ public class BookingServiceImpl implements BookingService {
         return bookingPage.map(bookingMapper::toBookingResponseDto).getContent();
     }
 
+    @Override
+    public List<BookingStateSummaryDto> getOwnerBookingSummary(Long ownerId, int size) {
+        log.debug("Fetching booking summary for owner ID: {} (top {})", ownerId, size);
+        if (size <= 0) {
+            throw new ValidationException("'size' must be positive");
+        }
+        userService.getUserEntityById(ownerId);
+
+        List<BookingStateRow> rows = bookingRepository.findOwnerStateSummaryRows(ownerId, size);
+
+        Map<Long, BookingResponseDto> bookingsById = bookingRepository.findByIdIn(
+                        rows.stream().map(BookingStateRow::getId).toList()).stream()
+                .map(bookingMapper::toBookingResponseDto)
+                .collect(Collectors.toMap(BookingResponseDto::getId, Function.identity()));
+
+        Map<BookingState, Long> counts = new EnumMap<>(BookingState.class);
+        Map<BookingState, List<BookingResponseDto>> tops = new EnumMap<>(BookingState.class);
+        for (BookingState state : BookingState.values()) {
+            counts.put(state, 0L);
+            tops.put(state, new ArrayList<>());
+        }
+
+        // rows arrive ordered by start DESC, so every per-state list keeps that order
+        for (BookingStateRow row : rows) {
+            BookingResponseDto booking = bookingsById.get(row.getId());
+            collectSummaryRow(counts, tops, BookingState.ALL, row.getTotalCount(), row.getRnAll(), booking, size);
+            summaryState(row.getTimeState()).ifPresent(state ->
+                    collectSummaryRow(counts, tops, state, row.getTimeCount(), row.getRnTime(), booking, size));
+            summaryState(row.getStatus()).ifPresent(state ->
+                    collectSummaryRow(counts, tops, state, row.getStatusCount(), row.getRnStatus(), booking, size));
+        }
+
+        return Arrays.stream(BookingState.values())
+                .map(state -> BookingStateSummaryDto.builder()
+                        .state(state.name())
+                        .count(counts.get(state))
+                        .bookings(tops.get(state))
+                        .build())
+                .toList();
+    }
+
     private Page<Booking> getBookingsPageForUser(Long userId, String state, int from, int size) {
         PageRequest page = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
         BookingState bookingState = BookingState.valueOf(state.toUpperCase());
 
         return switch (bookingState) {
             case ALL -> bookingRepository.findByBookerId(userId, page);
-            case CURRENT -> bookingRepository.findByBookerIdAndStartBeforeAndEndAfter(
-                    userId, LocalDateTime.now(), LocalDateTime.now(), page);
-            case PAST -> bookingRepository.findByBookerIdAndEndBefore(userId, LocalDateTime.now(), page);
-            case FUTURE -> bookingRepository.findByBookerIdAndStartAfter(userId, LocalDateTime.now(), page);
+            case CURRENT -> bookingRepository.findByBookerIdAndPhase(userId, BookingPhase.CURRENT, page);
+            case PAST -> bookingRepository.findByBookerIdAndPhase(userId, BookingPhase.PAST, page);
+            case FUTURE -> bookingRepository.findByBookerIdAndPhase(userId, BookingPhase.FUTURE, page);
             case WAITING -> bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, page);
             case REJECTED -> bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, page);
         };
@@ -132,15 +254,33 @@ public class BookingServiceImpl implements BookingService {
 
         return switch (bookingState) {
             case ALL -> bookingRepository.findByItemOwnerId(ownerId, page);
-            case CURRENT -> bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfter(
-                    ownerId, LocalDateTime.now(), LocalDateTime.now(), page);
-            case PAST -> bookingRepository.findByItemOwnerIdAndEndBefore(ownerId, LocalDateTime.now(), page);
-            case FUTURE -> bookingRepository.findByItemOwnerIdAndStartAfter(ownerId, LocalDateTime.now(), page);
+            case CURRENT -> bookingRepository.findByItemOwnerIdAndPhase(ownerId, BookingPhase.CURRENT, page);
+            case PAST -> bookingRepository.findByItemOwnerIdAndPhase(ownerId, BookingPhase.PAST, page);
+            case FUTURE -> bookingRepository.findByItemOwnerIdAndPhase(ownerId, BookingPhase.FUTURE, page);
             case WAITING -> bookingRepository.findByItemOwnerIdAndStatus(ownerId, BookingStatus.WAITING, page);
             case REJECTED -> bookingRepository.findByItemOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, page);
         };
     }
 
+    private static void collectSummaryRow(Map<BookingState, Long> counts,
+                                          Map<BookingState, List<BookingResponseDto>> tops,
+                                          BookingState state,
+                                          Long count,
+                                          Long rowNumber,
+                                          BookingResponseDto booking,
+                                          int size) {
+        counts.put(state, count);
+        if (booking != null && rowNumber <= size) {
+            tops.get(state).add(booking);
+        }
+    }
+
+    private static Optional<BookingState> summaryState(String value) {
+        return Arrays.stream(BookingState.values())
+                .filter(state -> state != BookingState.ALL && state.name().equals(value))
+                .findFirst();
+    }
+
     private void validateBooking(BookingRequestDto bookingDto, Long bookerId, Item item) {
         if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
             throw new ValidationException("End time must be after start time");
@@ -153,8 +293,44 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    private void applyDecisions(BookingStatus status, List<Booking> batch) {
+        List<Long> ids = batch.stream().map(Booking::getId).toList();
+        // the update clears the persistence context, so the loaded bookings are detached from here on
+        if (bookingRepository.updateWaitingStatus(ids, status) != ids.size()) {
+            throw new ValidationException("Booking is not in waiting status");
+        }
+
+        for (Booking booking : batch) {
+            booking.setStatus(status);
+            if (status == BookingStatus.APPROVED) {
+                itemBookingStatsService.onBookingApproved(booking);
+            }
+            outboxService.record(OutboxEventType.BOOKING_STATUS_CHANGED, booking.getId(),
+                    bookingMapper.toBookingResponseDto(booking));
+        }
+    }
+
+    private static String checkDecision(BookingDecisionDto decision, Booking booking, Long ownerId, Set<Long> seen) {
+        if (decision.getBookingId() == null || decision.getApproved() == null) {
+            return "Booking id and decision are required";
+        }
+        if (!seen.add(decision.getBookingId())) {
+            return "Duplicate decision for booking";
+        }
+        if (booking == null) {
+            return "Booking not found with id: " + decision.getBookingId();
+        }
+        if (!booking.getItemOwnerId().equals(ownerId)) {
+            return "User is not the owner of the item";
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return "Booking is not in waiting status";
+        }
+        return null;
+    }
+
     private void validateApproval(Booking booking, Long ownerId) {
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+        if (!booking.getItemOwnerId().equals(ownerId)) {
             throw new ValidationException("User is not the owner of the item");
         }
         if (booking.getStatus() != BookingStatus.WAITING) {
@@ -163,7 +339,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private void validateBookingAccess(Booking booking, Long userId) {
-        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
+        if (!booking.getBooker().getId().equals(userId) && !booking.getItemOwnerId().equals(userId)) {
             throw new NotFoundException("User not authorized to view this booking");
         }
     }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Row of the owner dashboard query: a booking id, the states it falls into and the window totals.
+ */
+public interface BookingStateRow {
+    Long getId();
+
+    String getTimeState();
+
+    String getStatus();
+
+    Long getTotalCount();
+
+    Long getTimeCount();
+
+    Long getStatusCount();
+
+    Long getRnAll();
+
+    Long getRnTime();
+
+    Long getRnStatus();
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Versions of a booking and of the item and booker it embeds, plus the ids needed for the access check.
+ */
+public interface BookingVersionView {
+    Long getVersion();
+
+    Long getItemVersion();
+
+    Long getBookerVersion();
+
+    Long getBookerId();
+
+    Long getItemOwnerId();
+}
@@ -1,13 +1,23 @@
 package ru.practicum.shareit.comment;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long itemId);
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItemIdOrderById(Long itemId);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItemIdInOrderById(Collection<Long> itemIds);
+
+    @Query("SELECT c.item.id FROM Comment c WHERE c.id = :commentId")
+    Optional<Long> findItemIdById(@Param("commentId") Long commentId);
 }
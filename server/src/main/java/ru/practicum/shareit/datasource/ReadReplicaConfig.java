@@ -0,0 +1,97 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enabled by listing replica JDBC URLs in {@code shareit.datasource.replicas.urls}; without it the
+ * application keeps Spring Boot's single data source. Replicas use the primary's credentials unless
+ * {@code shareit.datasource.replicas.username}/{@code password} are set, and the same
+ * {@code spring.datasource.hikari.*} pool settings as the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replicas.urls")
+public class ReadReplicaConfig {
+    private static final String POSTGRES_LAG_QUERY =
+            "SELECT CAST(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000 AS BIGINT)";
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${shareit.datasource.replicas.sticky-ms:5000}") long stickyMs) {
+        return new ReadYourWritesTracker(stickyMs);
+    }
+
+    /**
+     * The primary pool, bound to {@code spring.datasource.hikari.*} as Boot's own would be; as a bean it is
+     * closed on shutdown and gets its Hikari metrics from Boot.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            Environment environment,
+            ReadYourWritesTracker readYourWritesTracker,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${shareit.datasource.replicas.urls}") List<String> urls,
+            @Value("${shareit.datasource.replicas.username:}") String username,
+            @Value("${shareit.datasource.replicas.password:}") String password) {
+        Binder binder = Binder.get(environment);
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            replica.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+            replica.setReadOnly(true);
+            // реплика может быть недоступна при старте — это не повод не подниматься
+            replica.setInitializationFailTimeout(-1);
+            // пулы реплик не бины: метрики Hikari (в т.ч. время удержания соединения) подключаем сами,
+            // а закрывает их маршрутизатор
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(
+            ReplicaRoutingDataSource replicaRoutingDataSource,
+            ReadYourWritesTracker readYourWritesTracker,
+            @Value("${shareit.datasource.replicas.lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery,
+            @Value("${shareit.datasource.replicas.max-lag-ms:2000}") long maxLagMs) {
+        return new ReplicaHealthChecker(replicaRoutingDataSource, readYourWritesTracker, lagQuery, maxLagMs);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which users wrote recently, so their reads stay on the primary until the replicas had time
+ * to catch up with their own changes. Users are identified by the {@code X-Sharer-User-Id} header of the
+ * current request or, on {@code /users/{userId}} which has no header, by the path; work outside a request is
+ * never sticky.
+ */
+public class ReadYourWritesTracker {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String USER_PATH_VARIABLE = "userId";
+
+    private final long stickyNanos;
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long stickyMs) {
+        this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(stickyMs);
+    }
+
+    public void recordWrite() {
+        Long userId = currentUserId();
+        if (userId != null) {
+            lastWrites.put(userId, System.nanoTime());
+        }
+    }
+
+    public boolean isSticky() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt < stickyNanos;
+    }
+
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt >= stickyNanos);
+    }
+
+    private static Long currentUserId() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String header = request.getHeader(USER_HEADER);
+        if (header != null) {
+            return parse(header);
+        }
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get(USER_PATH_VARIABLE) instanceof String pathUserId) {
+            return parse(pathUserId);
+        }
+        return null;
+    }
+
+    private static Long parse(String userId) {
+        try {
+            return Long.parseLong(userId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
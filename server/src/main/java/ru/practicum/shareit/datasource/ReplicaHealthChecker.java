@@ -0,0 +1,76 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Periodically checks every replica: it must answer, and when a lag query is configured, its reported
+ * replication lag must stay within {@code max-lag-ms}. Replicas that fail are skipped by the router
+ * until a later check passes.
+ */
+@Slf4j
+public class ReplicaHealthChecker {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ReadYourWritesTracker readYourWrites;
+    private final String lagQuery;
+    private final long maxLagMs;
+
+    public ReplicaHealthChecker(ReplicaRoutingDataSource routingDataSource, ReadYourWritesTracker readYourWrites,
+                                String lagQuery, long maxLagMs) {
+        this.routingDataSource = routingDataSource;
+        this.readYourWrites = readYourWrites;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.replicas.health-check-ms:5000}")
+    public void checkReplicas() {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            check(replica);
+        }
+        readYourWrites.evictExpired();
+    }
+
+    void check(ReplicaRoutingDataSource.Replica replica) {
+        boolean healthy;
+        Long lagMs = null;
+        try (Connection connection = replica.getDataSource().getConnection()) {
+            healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            if (healthy && lagQuery != null && !lagQuery.isBlank()) {
+                lagMs = queryLag(connection);
+                // null — реплика не знает своего отставания (например, ещё ничего не проигрывала)
+                healthy = lagMs == null || lagMs <= maxLagMs;
+            }
+        } catch (SQLException e) {
+            log.debug("Replica {} check failed: {}", replica.getName(), e.getMessage());
+            healthy = false;
+        }
+
+        if (healthy != replica.isHealthy()) {
+            if (healthy) {
+                log.info("Replica {} is back in rotation, lag {} ms", replica.getName(), lagMs);
+            } else {
+                log.warn("Replica {} taken out of rotation, lag {} ms", replica.getName(), lagMs);
+            }
+        }
+        replica.update(healthy, lagMs);
+    }
+
+    private Long queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            long lag = resultSet.getLong(1);
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -26,11 +27,20 @@ public class ServerExceptionHandler {
         return new ErrorResponse("Conflict", ex.getMessage());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLock(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+        return new ErrorResponse("Conflict", "The resource was modified concurrently, please retry");
+    }
+
     // 3. Ошибки бизнес-логики
     @ExceptionHandler({
             UnavailableItemException.class,
             SelfBookingException.class,
-            BookingTimeException.class
+            BookingTimeException.class,
+            ValidationException.class,
+            InvalidPaginationException.class
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleBusinessRules(RuntimeException ex) {
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Burkhard-Keller tree of words under the Levenshtein distance. Children of a node are keyed by their distance to
+ * it, so by the triangle inequality a lookup within {@code k} only descends into children keyed {@code d-k..d+k}.
+ * Words are only ever added; lookups run concurrently with a single writer and see every fully linked node.
+ */
+final class BkTree {
+    private volatile Node root;
+    private int size;
+
+    synchronized boolean add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            if (distance == 0) {
+                return false;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Words within {@code maxDistance} of the given one with their distances. Stops after comparing
+     * {@code maxVisits} words, so the cost of a lookup does not grow with the vocabulary; the words found by then
+     * are returned.
+     */
+    Map<String, Integer> search(String word, int maxDistance, int maxVisits) {
+        Map<String, Integer> matches = new HashMap<>();
+        Node start = root;
+        if (start == null) {
+            return matches;
+        }
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(start);
+        int visits = 0;
+        while (!pending.isEmpty() && visits++ < maxVisits) {
+            Node node = pending.pop();
+            int distance = distance(word, node.word);
+            if (distance <= maxDistance) {
+                matches.put(node.word, distance);
+            }
+            for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                Node child = node.children.get(d);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return matches;
+    }
+
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new ConcurrentHashMap<>();
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemBookingStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemBookingStatsRepository extends JpaRepository<ItemBookingStats, Long> {
+    List<ItemBookingStats> findByNextBookingStartLessThanEqual(LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT i.id FROM Item i " +
+            "WHERE NOT EXISTS (SELECT s.itemId FROM ItemBookingStats s WHERE s.itemId = i.id)")
+    List<Long> findItemIdsWithoutStats(Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingStats s WHERE s.itemId = :itemId")
+    Optional<ItemBookingStats> findByItemIdForUpdate(@Param("itemId") Long itemId);
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.ItemBookingStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemBookingStatsService {
+    private static final int ROLL_FORWARD_BATCH_SIZE = 500;
+
+    private final ItemBookingStatsRepository statsRepository;
+    private final BookingRepository bookingRepository;
+
+    @Transactional
+    public void createForItem(Long itemId) {
+        statsRepository.save(ItemBookingStats.builder().itemId(itemId).build());
+    }
+
+    @Transactional
+    public void onBookingCreated(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        ItemBookingStats stats = statsRepository.findByItemIdForUpdate(itemId)
+                .map(existing -> {
+                    existing.setBookingCount(existing.getBookingCount() + 1);
+                    return existing;
+                })
+                .orElseGet(() -> computeStats(itemId, now));
+        stats.setLastBookedAt(now);
+        statsRepository.save(stats);
+    }
+
+    @Transactional
+    public void onBookingApproved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        statsRepository.findByItemIdForUpdate(itemId)
+                .ifPresentOrElse(stats -> {
+                    stats.setApprovedCount(stats.getApprovedCount() + 1);
+                    applyLastAndNext(stats, now);
+                }, () -> statsRepository.save(computeStats(itemId, now)));
+    }
+
+    /**
+     * Returns the stored projection while it is still valid, i.e. its "next" booking has not started yet.
+     * Items without a row or with an outdated one are answered from the bookings table without writing.
+     */
+    public ItemBookingStats getCurrentStats(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        return statsRepository.findById(itemId)
+                .filter(stats -> stats.getNextBookingStart() == null || stats.getNextBookingStart().isAfter(now))
+                .orElseGet(() -> {
+                    ItemBookingStats stats = ItemBookingStats.builder().itemId(itemId).build();
+                    applyLastAndNext(stats, now);
+                    return stats;
+                });
+    }
+
+    /**
+     * Moves "next" to "last" for items whose next booking has started and backfills items that have no row.
+     */
+    @Scheduled(fixedDelayString = "${shareit.item-stats.roll-forward-delay-ms:60000}",
+            initialDelayString = "${shareit.item-stats.roll-forward-delay-ms:60000}")
+    @Transactional
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<ItemBookingStats> due = statsRepository.findByNextBookingStartLessThanEqual(
+                now, PageRequest.of(0, ROLL_FORWARD_BATCH_SIZE));
+        due.forEach(stats -> applyLastAndNext(stats, now));
+
+        List<Long> missing = statsRepository.findItemIdsWithoutStats(PageRequest.of(0, ROLL_FORWARD_BATCH_SIZE));
+        missing.forEach(itemId -> statsRepository.save(computeStats(itemId, now)));
+
+        if (!due.isEmpty() || !missing.isEmpty()) {
+            log.debug("Item booking stats rolled forward: {} updated, {} backfilled", due.size(), missing.size());
+        }
+    }
+
+    private ItemBookingStats computeStats(Long itemId, LocalDateTime now) {
+        ItemBookingStats stats = ItemBookingStats.builder()
+                .itemId(itemId)
+                .bookingCount(bookingRepository.countByItemId(itemId))
+                .approvedCount(bookingRepository.countByItemIdAndStatus(itemId, BookingStatus.APPROVED))
+                .build();
+        applyLastAndNext(stats, now);
+        return stats;
+    }
+
+    private void applyLastAndNext(ItemBookingStats stats, LocalDateTime now) {
+        Long itemId = stats.getItemId();
+
+        bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(
+                        itemId, now, BookingStatus.APPROVED)
+                .ifPresentOrElse(last -> {
+                    stats.setLastBookingId(last.getId());
+                    stats.setLastBookerId(last.getBooker().getId());
+                }, () -> {
+                    stats.setLastBookingId(null);
+                    stats.setLastBookerId(null);
+                });
+
+        bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
+                        itemId, now, BookingStatus.APPROVED)
+                .ifPresentOrElse(next -> {
+                    stats.setNextBookingId(next.getId());
+                    stats.setNextBookerId(next.getBooker().getId());
+                    stats.setNextBookingStart(next.getStart());
+                }, () -> {
+                    stats.setNextBookingId(null);
+                    stats.setNextBookerId(null);
+                    stats.setNextBookingStart(null);
+                });
+    }
+}
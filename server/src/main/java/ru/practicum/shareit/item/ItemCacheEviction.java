@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Drops the "items" cache entries of rows that Hibernate did not delete itself, so that they are not served
+ * until they expire. Runs after commit: evicting earlier would let a concurrent read cache the old row again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemCacheEviction {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemsDeleted(ItemsDeletedEvent event) {
+        Cache cache = entityManagerFactory.getCache();
+        event.getItemIds().forEach(itemId -> cache.evict(Item.class, itemId));
+        log.debug("Evicted {} deleted items from the second-level cache", event.getItemIds().size());
+    }
+}
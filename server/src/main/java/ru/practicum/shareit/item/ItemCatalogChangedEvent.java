@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by item writes that change what public search returns (item fields, comments and deletions).
+ */
+@Getter
+@AllArgsConstructor
+public class ItemCatalogChangedEvent {
+    private final Long itemId;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the searchable item catalog, sent to the gateway as an invalidation hint for its
+ * search cache. Starts from the boot time, so a restarted server never reports an older version.
+ */
+@Component
+public class ItemCatalogVersion {
+    public static final String HEADER = "X-Item-Catalog-Version";
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Invalidation hint for the gateway search cache; writes report the version that includes their own change.
+     */
+    public void expose(HttpServletResponse response) {
+        response.setHeader(HEADER, String.valueOf(current()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCatalogChanged(ItemCatalogChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -1,11 +1,14 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
 import java.util.List;
 
@@ -15,28 +18,39 @@ import java.util.List;
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final ItemCatalogVersion catalogVersion;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemDto addItem(@RequestHeader(USER_ID_HEADER) Long userId,
-                           @RequestBody ItemDto itemDto) {
+                           @RequestBody ItemDto itemDto,
+                           HttpServletResponse response) {
         log.debug("Server: Adding item for user ID: {}", userId);
-        return itemService.addItem(itemDto, userId);
+        ItemDto item = itemService.addItem(itemDto, userId);
+        catalogVersion.expose(response);
+        return item;
     }
 
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Long itemId,
                               @RequestHeader(USER_ID_HEADER) Long userId,
-                              @RequestBody ItemDto itemDto) {
+                              @RequestBody ItemDto itemDto,
+                              HttpServletResponse response) {
         log.debug("Server: Updating item ID: {}", itemId);
-        return itemService.updateItem(itemId, itemDto, userId);
+        ItemDto item = itemService.updateItem(itemId, itemDto, userId);
+        catalogVersion.expose(response);
+        return item;
     }
 
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@PathVariable Long itemId,
-                               @RequestHeader(USER_ID_HEADER) Long userId) {
+                               @RequestHeader(USER_ID_HEADER) Long userId,
+                               WebRequest request) {
         log.debug("Server: Getting item ID: {}", itemId);
+        if (request.checkNotModified(itemService.getItemETag(itemId, userId))) {
+            return null;
+        }
         return itemService.getItemById(itemId, userId);
     }
 
@@ -48,16 +62,34 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam String text,
-                                     @RequestHeader(USER_ID_HEADER) Long userId) {
-        log.debug("Server: Searching items by text: '{}'", text);
-        return itemService.searchItems(text);
+                                     @RequestParam(defaultValue = "false") boolean fuzzy,
+                                     ItemSearchFilter filter,
+                                     @RequestParam(defaultValue = "0") int from,
+                                     @RequestParam(defaultValue = "10") int size,
+                                     @RequestHeader(USER_ID_HEADER) Long userId,
+                                     HttpServletResponse response) {
+        log.debug("Server: Searching items by text: '{}' (from={}, size={})", text, from, size);
+        // version is taken before the search, so the results are never older than the version they carry
+        catalogVersion.expose(response);
+        return itemService.searchItems(text, fuzzy, filter, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggestItems(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") int size,
+                                                @RequestHeader(USER_ID_HEADER) Long userId) {
+        log.debug("Server: Suggesting items for prefix: '{}'", prefix);
+        return itemService.suggestItems(prefix, size);
     }
 
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@PathVariable Long itemId,
                                  @RequestHeader(USER_ID_HEADER) Long userId,
-                                 @RequestBody CommentDto commentDto) {
+                                 @RequestBody CommentDto commentDto,
+                                 HttpServletResponse response) {
         log.debug("Server: Adding comment to item ID: {}", itemId);
-        return itemService.addComment(itemId, userId, commentDto);
+        CommentDto comment = itemService.addComment(itemId, userId, commentDto);
+        catalogVersion.expose(response);
+        return comment;
     }
 }
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Flags near-duplicate listings across the whole catalog, for relistings that predate the check in
+ * {@code addItem} or slipped past it while the duplicate index was catching up. Owners are independent, so they
+ * are split across a fork-join pool; within an owner the oldest listing is the original.
+ */
+@Slf4j
+@Component
+public class ItemDeduplicationJob {
+    private static final int BATCH_SIZE = 500;
+    private static final int OWNERS_PER_TASK = 64;
+
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+
+    public ItemDeduplicationJob(ItemRepository itemRepository, ItemMapper itemMapper, OutboxService outboxService,
+                                ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                                @Value("${shareit.dedupe.parallelism:0}") int parallelism) {
+        this.itemRepository = itemRepository;
+        this.itemMapper = itemMapper;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return the number of listings flagged as duplicates
+     */
+    @Scheduled(cron = "${shareit.dedupe.cron:0 30 3 * * *}")
+    public int deduplicate() {
+        List<List<ItemDuplicateView>> owners = new ArrayList<>(itemRepository.findOriginalViews().stream()
+                .collect(Collectors.groupingBy(ItemDuplicateView::getOwnerId))
+                .values());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Map<Long, Long> originals;
+        try {
+            originals = pool.invoke(new OwnersTask(owners, 0, owners.size()));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Long> duplicateIds = new ArrayList<>(originals.keySet());
+        Collections.sort(duplicateIds);
+        for (int from = 0; from < duplicateIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = duplicateIds.subList(from, Math.min(duplicateIds.size(), from + BATCH_SIZE));
+            transactionTemplate.executeWithoutResult(status -> markDuplicates(batch, originals));
+        }
+
+        if (!originals.isEmpty()) {
+            log.info("Deduplication flagged {} listings of {} owners", originals.size(), owners.size());
+        }
+        return originals.size();
+    }
+
+    /**
+     * Near-duplicates among one owner's listings, mapped to their originals. Listings are taken oldest first and
+     * only ones without an original become candidates, so every duplicate points at an original.
+     */
+    static Map<Long, Long> findDuplicates(List<ItemDuplicateView> ownerItems) {
+        List<ItemDuplicateView> byAge = new ArrayList<>(ownerItems);
+        byAge.sort(Comparator.comparing(ItemDuplicateView::getId));
+
+        SimHashBuckets originals = new SimHashBuckets();
+        Map<Long, Long> duplicates = new HashMap<>();
+        for (ItemDuplicateView item : byAge) {
+            long signature = ItemDuplicateIndex.signature(item.getName(), item.getDescription());
+            Optional<Long> original = originals.nearest(signature);
+            if (original.isPresent()) {
+                duplicates.put(item.getId(), original.get());
+            } else {
+                originals.add(item.getId(), signature);
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Flags in one transaction, with an outbox event per listing so the in-memory indexes drop it.
+     */
+    private void markDuplicates(List<Long> ids, Map<Long, Long> originals) {
+        boolean changed = false;
+        for (Item item : itemRepository.findAllById(ids)) {
+            if (item.getDuplicateOf() == null) {
+                item.setDuplicateOf(originals.get(item.getId()));
+                outboxService.record(OutboxEventType.ITEM_UPDATED, item.getId(), itemMapper.toSimpleItemDto(item));
+                changed = true;
+            }
+        }
+        if (changed) {
+            eventPublisher.publishEvent(new ItemCatalogChangedEvent(ids.get(0)));
+        }
+    }
+
+    private static final class OwnersTask extends RecursiveTask<Map<Long, Long>> {
+        private final List<List<ItemDuplicateView>> owners;
+        private final int from;
+        private final int to;
+
+        private OwnersTask(List<List<ItemDuplicateView>> owners, int from, int to) {
+            this.owners = owners;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, Long> compute() {
+            if (to - from <= OWNERS_PER_TASK) {
+                Map<Long, Long> duplicates = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    duplicates.putAll(findDuplicates(owners.get(i)));
+                }
+                return duplicates;
+            }
+
+            int middle = (from + to) >>> 1;
+            OwnersTask left = new OwnersTask(owners, from, middle);
+            left.fork();
+            Map<Long, Long> duplicates = new OwnersTask(owners, middle, to).compute();
+            duplicates.putAll(left.join());
+            return duplicates;
+        }
+    }
+}
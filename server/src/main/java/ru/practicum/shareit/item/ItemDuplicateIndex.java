@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxSubscriber;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * SimHash signatures of every owner's original listings, bucketed for LSH lookups, so a relisting can be
+ * recognised when it is added. Only searchable items are indexed: a match is always the original, and a relisting
+ * is never hidden behind a listing that search does not show either. Loaded on startup and kept current from the
+ * outbox.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemDuplicateIndex implements OutboxSubscriber {
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, SimHashBuckets> bucketsByOwner = new HashMap<>();
+    private final Map<Long, Long> ownerByItem = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ItemDuplicateView> items = itemRepository.findOriginalViews();
+        items.forEach(item -> index(item.getId(), item.getOwnerId(), item.getName(), item.getDescription()));
+        log.info("Duplicate index loaded: {} items of {} owners", items.size(), bucketsByOwner.size());
+    }
+
+    /**
+     * The original of which a new listing of the owner would be a near-duplicate.
+     */
+    public Optional<Long> findOriginal(Long ownerId, String name, String description) {
+        return findOriginal(ownerId, Long.MAX_VALUE, name, description);
+    }
+
+    /**
+     * The original of which an edited listing is now a near-duplicate. Only older listings count: the oldest one
+     * stays the original, as in {@link ItemDeduplicationJob}, and the listing never matches itself.
+     */
+    public synchronized Optional<Long> findOriginal(Long ownerId, long itemId, String name, String description) {
+        SimHashBuckets buckets = bucketsByOwner.get(ownerId);
+        return buckets == null ? Optional.empty() : buckets.nearest(signature(name, description), itemId);
+    }
+
+    /**
+     * Whether two texts are close enough for one to count as a relisting of the other.
+     */
+    static boolean nearDuplicates(String name, String description, String otherName, String otherDescription) {
+        return SimHash.distance(signature(name, description), signature(otherName, otherDescription))
+                <= SimHashBuckets.MAX_DISTANCE;
+    }
+
+    @Override
+    public boolean supports(OutboxEventType type) {
+        return type == OutboxEventType.ITEM_CREATED
+                || type == OutboxEventType.ITEM_UPDATED
+                || type == OutboxEventType.ITEM_DELETED;
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event) {
+        // the flag is read from the row, since the dedupe job may have set it after the event was written
+        itemRepository.findSearchableById(event.getAggregateId())
+                .ifPresentOrElse(
+                        item -> index(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription()),
+                        () -> remove(event.getAggregateId()));
+    }
+
+    static long signature(String name, String description) {
+        return SimHash.of(name + " " + Objects.toString(description, ""));
+    }
+
+    synchronized void index(Long id, Long ownerId, String name, String description) {
+        remove(id);
+        bucketsByOwner.computeIfAbsent(ownerId, owner -> new SimHashBuckets()).add(id, signature(name, description));
+        ownerByItem.put(id, ownerId);
+    }
+
+    synchronized void remove(Long id) {
+        Long ownerId = ownerByItem.remove(id);
+        if (ownerId == null) {
+            return;
+        }
+        SimHashBuckets buckets = bucketsByOwner.get(ownerId);
+        buckets.remove(id);
+        if (buckets.isEmpty()) {
+            bucketsByOwner.remove(ownerId);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item;
+
+/**
+ * What near-duplicate detection compares: an owner's listing text.
+ */
+public interface ItemDuplicateView {
+    Long getId();
+
+    Long getOwnerId();
+
+    String getName();
+
+    String getDescription();
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxSubscriber;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of item ids per search facet: owner, "answers an item request" and comment count. A filter
+ * is answered by intersecting bitmaps, without touching the database. Comment counts are bit-sliced: slice
+ * {@code i} holds the items whose count has bit {@code i} set, so "at least n comments" takes one pass over the
+ * slices whatever n is. The bitmaps are 64-bit, as item ids are. Loaded on startup and kept current from the outbox.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemFacetIndex implements OutboxSubscriber {
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Roaring64Bitmap all = new Roaring64Bitmap();
+    private final Roaring64Bitmap answersRequest = new Roaring64Bitmap();
+    private final Map<Long, Roaring64Bitmap> byOwner = new HashMap<>();
+    private final List<Roaring64Bitmap> commentSlices = new ArrayList<>();
+    private final Map<Long, Facets> facetsById = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ItemFacetView> items = itemRepository.findFacetViews();
+        items.forEach(this::index);
+        log.info("Facet index loaded: {} items, {} owners", items.size(), byOwner.size());
+    }
+
+    /**
+     * Ids of the items passing the facets of the filter; availability is not a facet here.
+     */
+    public Roaring64Bitmap matching(ItemSearchFilter filter) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap result = all.clone();
+            if (filter.ownerId() != null) {
+                result.and(byOwner.getOrDefault(filter.ownerId(), new Roaring64Bitmap()));
+            }
+            if (filter.answersRequest() != null) {
+                if (filter.answersRequest()) {
+                    result.and(answersRequest);
+                } else {
+                    result.andNot(answersRequest);
+                }
+            }
+            if (filter.minComments() != null && filter.minComments() > 0) {
+                result.and(atLeastComments(filter.minComments()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean supports(OutboxEventType type) {
+        return type == OutboxEventType.ITEM_CREATED
+                || type == OutboxEventType.ITEM_UPDATED
+                || type == OutboxEventType.ITEM_DELETED
+                || type == OutboxEventType.COMMENT_ADDED;
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event) {
+        Long itemId = event.getType() == OutboxEventType.COMMENT_ADDED
+                ? commentRepository.findItemIdById(event.getAggregateId()).orElse(null)
+                : event.getAggregateId();
+        if (itemId == null) {
+            return;
+        }
+        // re-read rather than count events, so a redelivered event changes nothing
+        itemRepository.findFacetViewById(itemId).ifPresentOrElse(this::index, () -> remove(itemId));
+    }
+
+    void index(ItemFacetView item) {
+        long id = item.getId();
+        Facets facets = new Facets(item.getOwnerId(), item.getRequestId() != null,
+                (int) Math.min(item.getCommentCount(), Integer.MAX_VALUE));
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            facetsById.put(id, facets);
+            all.addLong(id);
+            byOwner.computeIfAbsent(facets.ownerId, owner -> new Roaring64Bitmap()).addLong(id);
+            if (facets.answersRequest) {
+                answersRequest.addLong(id);
+            }
+            for (int slice = 0; facets.commentCount >>> slice != 0; slice++) {
+                if (slice == commentSlices.size()) {
+                    commentSlices.add(new Roaring64Bitmap());
+                }
+                if ((facets.commentCount >>> slice & 1) != 0) {
+                    commentSlices.get(slice).addLong(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        Facets facets = facetsById.remove(id);
+        if (facets == null) {
+            return;
+        }
+        all.removeLong(id);
+        Roaring64Bitmap owned = byOwner.get(facets.ownerId);
+        owned.removeLong(id);
+        if (owned.isEmpty()) {
+            byOwner.remove(facets.ownerId);
+        }
+        answersRequest.removeLong(id);
+        commentSlices.forEach(slice -> slice.removeLong(id));
+    }
+
+    /**
+     * Items with a comment count of at least {@code min}: walking the slices from the highest bit down, keep the
+     * items already known to be greater and those still equal to {@code min} in the bits seen so far.
+     */
+    private Roaring64Bitmap atLeastComments(int min) {
+        if (32 - Integer.numberOfLeadingZeros(min) > commentSlices.size()) {
+            return new Roaring64Bitmap();
+        }
+        Roaring64Bitmap greater = new Roaring64Bitmap();
+        Roaring64Bitmap equal = all.clone();
+        for (int bit = commentSlices.size() - 1; bit >= 0; bit--) {
+            Roaring64Bitmap slice = commentSlices.get(bit);
+            if ((min >>> bit & 1) != 0) {
+                equal.and(slice);
+            } else {
+                greater.or(Roaring64Bitmap.and(equal, slice));
+                equal.andNot(slice);
+            }
+        }
+        greater.or(equal);
+        return greater;
+    }
+
+    private record Facets(Long ownerId, boolean answersRequest, int commentCount) {
+    }
+}
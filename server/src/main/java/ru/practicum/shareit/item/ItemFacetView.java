@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item;
+
+/**
+ * The facet values of an item, as the facet index keeps them.
+ */
+public interface ItemFacetView {
+    Long getId();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+
+    Long getCommentCount();
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxSubscriber;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typo-tolerant lookup over the names of available items. The words of all names form a BK-tree; every word of
+ * the query is expanded to the vocabulary words within its edit distance, and an item matches when each query
+ * word matches one of its words. Items are ranked by the summed distance. Kept current from the outbox like
+ * {@link ItemSuggestIndex}.
+ */
+@Slf4j
+@Component
+public class ItemFuzzyIndex implements OutboxSubscriber {
+    private static final int MAX_QUERY_WORDS = 5;
+
+    private final ItemRepository itemRepository;
+    private final int maxVisits;
+    private final int maxResults;
+
+    private final BkTree vocabulary = new BkTree();
+    private final Map<String, Set<Long>> itemsByWord = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> wordsByItem = new ConcurrentHashMap<>();
+
+    public ItemFuzzyIndex(ItemRepository itemRepository,
+                          @Value("${shareit.search.fuzzy.max-visits:5000}") int maxVisits,
+                          @Value("${shareit.search.fuzzy.max-results:100}") int maxResults) {
+        this.itemRepository = itemRepository;
+        this.maxVisits = maxVisits;
+        this.maxResults = maxResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        itemRepository.findSuggestionViews().forEach(item -> index(item.getId(), item.getName()));
+        log.info("Fuzzy search index loaded: {} items, {} words", wordsByItem.size(), vocabulary.size());
+    }
+
+    /**
+     * Ids of the matching items, best first. Both the tree walk per query word and the result are capped, so
+     * latency stays bounded however large the catalog grows.
+     */
+    public List<Long> search(String text) {
+        List<String> query = ItemNames.words(text).stream().distinct().limit(MAX_QUERY_WORDS).toList();
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String word : query) {
+            Map<Long, Integer> matches = new HashMap<>();
+            vocabulary.search(word, maxDistance(word), maxVisits).forEach((match, distance) -> {
+                for (Long id : itemsByWord.getOrDefault(match, Set.of())) {
+                    matches.merge(id, distance, Math::min);
+                }
+            });
+            if (scores == null) {
+                scores = matches;
+            } else {
+                // every query word has to match
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxResults)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public boolean supports(OutboxEventType type) {
+        return type == OutboxEventType.ITEM_CREATED
+                || type == OutboxEventType.ITEM_UPDATED
+                || type == OutboxEventType.ITEM_DELETED;
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event) {
+        // index() replaces the item's words, so whatever the row says now wins over earlier deliveries
+        itemRepository.findSearchableById(event.getAggregateId()).ifPresentOrElse(
+                item -> index(item.getId(), item.getName()),
+                () -> remove(event.getAggregateId()));
+    }
+
+    /**
+     * Short words tolerate fewer typos, otherwise a two-letter word would match most of the vocabulary.
+     */
+    static int maxDistance(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    synchronized void index(Long id, String name) {
+        remove(id);
+        Set<String> words = new HashSet<>(ItemNames.words(name));
+        wordsByItem.put(id, words);
+        for (String word : words) {
+            vocabulary.add(word);
+            itemsByWord.computeIfAbsent(word, w -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Removed words stay in the tree with no items; names share most of their words, so the vocabulary grows
+     * slowly and is rebuilt from scratch on every start.
+     */
+    synchronized void remove(Long id) {
+        Set<String> words = wordsByItem.remove(id);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            itemsByWord.computeIfPresent(word, (w, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
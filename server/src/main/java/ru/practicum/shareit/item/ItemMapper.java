@@ -2,33 +2,33 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingStats;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
-import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class ItemMapper {
-    private final BookingRepository bookingRepository;
+    private final ItemBookingStatsService bookingStatsService;
 
-    public ItemDto toItemDto(Item item, Long userId) {
+    /**
+     * Comments (and their authors) are loaded by the caller, so mapping never touches a lazy association.
+     */
+    public ItemDto toItemDto(Item item, Long userId, List<Comment> comments) {
         if (item == null) {
             return null;
         }
 
         boolean isOwner = item.getOwner().getId().equals(userId);
+        ItemBookingStats bookingStats = isOwner ? getBookingStats(item) : null;
 
         return ItemDto.builder()
                 .id(item.getId())
@@ -37,9 +37,12 @@ public class ItemMapper {
                 .available(item.getAvailable())
                 .ownerId(item.getOwner().getId())
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
-                .lastBooking(isOwner ? getLastBookingInfo(item) : null)
-                .nextBooking(isOwner ? getNextBookingInfo(item) : null)
-                .comments(mapCommentsToDto(item.getComments()))
+                .duplicateOf(item.getDuplicateOf())
+                .lastBooking(bookingStats != null
+                        ? toBookingInfo(bookingStats.getLastBookingId(), bookingStats.getLastBookerId()) : null)
+                .nextBooking(bookingStats != null
+                        ? toBookingInfo(bookingStats.getNextBookingId(), bookingStats.getNextBookerId()) : null)
+                .comments(mapCommentsToDto(comments))
                 .build();
     }
 
@@ -58,34 +61,23 @@ public class ItemMapper {
                 .build();
     }
 
-    private ItemDto.BookingInfoDto getLastBookingInfo(Item item) {
+    private ItemBookingStats getBookingStats(Item item) {
         if (item.getId() == null || !item.getAvailable()) {
             return null;
         }
 
-        Optional<Booking> lastBooking = bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(
-                item.getId(), LocalDateTime.now(), BookingStatus.APPROVED);
-
-        return lastBooking.map(booking -> ItemDto.BookingInfoDto.builder()
-                        .id(booking.getId())
-                        .bookerId(booking.getBooker().getId())
-                        .build())
-                .orElse(null);
+        return bookingStatsService.getCurrentStats(item.getId());
     }
 
-    private ItemDto.BookingInfoDto getNextBookingInfo(Item item) {
-        if (item.getId() == null || !item.getAvailable()) {
+    private ItemDto.BookingInfoDto toBookingInfo(Long bookingId, Long bookerId) {
+        if (bookingId == null) {
             return null;
         }
 
-        Optional<Booking> nextBooking = bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                item.getId(), LocalDateTime.now(), BookingStatus.APPROVED);
-
-        return nextBooking.map(booking -> ItemDto.BookingInfoDto.builder()
-                        .id(booking.getId())
-                        .bookerId(booking.getBooker().getId())
-                        .build())
-                .orElse(null);
+        return ItemDto.BookingInfoDto.builder()
+                .id(bookingId)
+                .bookerId(bookerId)
+                .build();
     }
 
     private List<CommentDto> mapCommentsToDto(List<Comment> comments) {
@@ -115,6 +107,7 @@ public class ItemMapper {
                 .available(item.getAvailable())
                 .ownerId(item.getOwner().getId())
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .duplicateOf(item.getDuplicateOf())
                 .build();
     }
 }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item;
+
+import java.util.Locale;
+
+/**
+ * Relevance of an item to a search text: how often the text occurs in the name and in the description, with a
+ * name occurrence worth several description ones.
+ */
+final class ItemRelevance {
+    static final int NAME_WEIGHT = 3;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private ItemRelevance() {
+    }
+
+    /**
+     * @param text search text lower-cased with {@link Locale#ROOT}
+     */
+    static int score(String text, String name, String description) {
+        return NAME_WEIGHT * occurrences(name, text) + DESCRIPTION_WEIGHT * occurrences(description, text);
+    }
+
+    static int occurrences(String field, String text) {
+        if (field == null || text.isEmpty()) {
+            return 0;
+        }
+        String haystack = field.toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (int at = haystack.indexOf(text); at >= 0; at = haystack.indexOf(text, at + text.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -1,22 +1,92 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerIdOrderById(Long ownerId);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE i.available = true AND " +
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Streamed so that search holds only its current top results, not every match.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description FROM Item i " +
+            "WHERE i.available = :available AND i.duplicateOf IS NULL AND " +
             "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
             "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> searchAvailableItems(@Param("text") String text);
+    Stream<ItemSearchView> streamSearchViews(@Param("text") String text, @Param("available") boolean available);
+
+    /**
+     * Text matches with no approved booking overlapping {@code [start, end)}, in one anti-join.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description FROM Item i " +
+            "WHERE i.available = :available AND i.duplicateOf IS NULL AND " +
+            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) AND " +
+            "NOT EXISTS (SELECT b.id FROM Booking b WHERE b.item.id = i.id " +
+            "AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "AND b.start < :end AND b.end > :start)")
+    Stream<ItemSearchView> streamSearchViewsFreeBetween(@Param("text") String text,
+                                                        @Param("available") boolean available,
+                                                        @Param("start") LocalDateTime start,
+                                                        @Param("end") LocalDateTime end);
 
     List<Item> findByRequestId(Long requestId);
+
+    @Query("SELECT i.version AS version, i.owner.id AS ownerId, i.available AS available, " +
+            "COUNT(c.id) AS commentCount, COALESCE(MAX(c.id), 0) AS lastCommentId, " +
+            "COALESCE(SUM(a.version), 0) AS commentAuthorsVersion " +
+            "FROM Item i LEFT JOIN i.comments c LEFT JOIN c.author a " +
+            "WHERE i.id = :itemId " +
+            "GROUP BY i.id, i.version, i.owner.id, i.available")
+    Optional<ItemVersionView> findVersionViewById(@Param("itemId") Long itemId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT i.id AS id, i.name AS name, COALESCE(s.bookingCount, 0) AS popularity " +
+            "FROM Item i LEFT JOIN ItemBookingStats s ON s.itemId = i.id " +
+            "WHERE i.available = true AND i.duplicateOf IS NULL")
+    List<ItemSuggestionView> findSuggestionViews();
+
+    @Query("SELECT i.id AS id, i.owner.id AS ownerId, r.id AS requestId, COUNT(c.id) AS commentCount " +
+            "FROM Item i LEFT JOIN i.request r LEFT JOIN i.comments c " +
+            "GROUP BY i.id, i.owner.id, r.id")
+    List<ItemFacetView> findFacetViews();
+
+    @Query("SELECT i.id AS id, i.owner.id AS ownerId, r.id AS requestId, COUNT(c.id) AS commentCount " +
+            "FROM Item i LEFT JOIN i.request r LEFT JOIN i.comments c " +
+            "WHERE i.id = :itemId " +
+            "GROUP BY i.id, i.owner.id, r.id")
+    Optional<ItemFacetView> findFacetViewById(@Param("itemId") Long itemId);
+
+    @Query("SELECT i.id AS id, i.owner.id AS ownerId, i.name AS name, i.description AS description " +
+            "FROM Item i WHERE i.available = true AND i.duplicateOf IS NULL")
+    List<ItemDuplicateView> findOriginalViews();
+
+    List<Item> findByDuplicateOf(Long originalId);
+
+    /**
+     * The item as it is now, if search may show it. The in-memory search indexes re-read through this on every
+     * outbox event instead of trusting the event payload.
+     */
+    default Optional<Item> findSearchableById(Long itemId) {
+        return findById(itemId).filter(Item::isSearchable);
+    }
 }
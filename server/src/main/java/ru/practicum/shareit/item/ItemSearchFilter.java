@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Search filters besides the text, bound from the query parameters of the same names.
+ *
+ * @param available     available items when absent or true, unavailable ones when false
+ * @param ownerId       items of this owner only
+ * @param answersRequest whether the item was added in answer to an item request
+ * @param minComments   at least this many comments
+ * @param start         with {@code end}, items free of approved bookings for the whole of {@code [start, end)}
+ */
+public record ItemSearchFilter(Boolean available, Long ownerId, Boolean answersRequest, Integer minComments,
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+    public static final ItemSearchFilter NONE = new ItemSearchFilter(null, null, null, null, null, null);
+
+    public boolean availableItems() {
+        return available == null || available;
+    }
+
+    /**
+     * Whether the filter narrows the search beyond availability, that is, needs the facet index.
+     */
+    public boolean hasFacets() {
+        return ownerId != null || answersRequest != null || minComments != null && minComments > 0;
+    }
+
+    public boolean hasDateRange() {
+        return start != null || end != null;
+    }
+}
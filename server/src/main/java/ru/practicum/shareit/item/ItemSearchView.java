@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item;
+
+/**
+ * The fields search scores a candidate on, without loading the entity.
+ */
+public interface ItemSearchView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
@@ -13,9 +14,13 @@ public interface ItemService {
 
     ItemDto getItemById(Long itemId, Long userId);
 
+    String getItemETag(Long itemId, Long userId);
+
     List<ItemDto> getAllItemsByOwner(Long ownerId);
 
-    List<ItemDto> searchItems(String text);
+    List<ItemDto> searchItems(String text, boolean fuzzy, ItemSearchFilter filter, int from, int size);
+
+    List<ItemSuggestionDto> suggestItems(String prefix, int size);
 
     Item getItemEntityById(Long itemId);
 
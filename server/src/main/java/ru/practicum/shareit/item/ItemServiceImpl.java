@@ -2,6 +2,8 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
@@ -12,27 +14,47 @@ import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingStats;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
 import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestAnsweredEvent;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final Comparator<ScoredId> BY_RELEVANCE = Comparator
+            .comparingInt(ScoredId::score).reversed()
+            .thenComparing(ScoredId::id);
+    // глубже этой позиции поиск не листается: куча top-K держит offset + size кандидатов
+    private static final int MAX_SEARCH_DEPTH = 10_000;
+
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemMapper itemMapper;
+    private final ItemBookingStatsService bookingStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemFuzzyIndex fuzzyIndex;
+    private final ItemFacetIndex facetIndex;
+    private final ItemDuplicateIndex duplicateIndex;
 
     @Override
     @Transactional
@@ -55,12 +77,25 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item item = itemMapper.toItem(itemDto, owner, request);
+        duplicateIndex.findOriginal(ownerId, item.getName(), item.getDescription()).ifPresent(originalId -> {
+            log.info("Item '{}' of owner ID: {} relists item ID: {}", item.getName(), ownerId, originalId);
+            item.setDuplicateOf(originalId);
+        });
         Item savedItem = itemRepository.save(item);
+        bookingStatsService.createForItem(savedItem.getId());
+
+        ItemDto snapshot = itemMapper.toSimpleItemDto(savedItem);
+        outboxService.record(OutboxEventType.ITEM_CREATED, savedItem.getId(), snapshot);
+        eventPublisher.publishEvent(new ItemCatalogChangedEvent(savedItem.getId()));
+        if (request != null) {
+            eventPublisher.publishEvent(new ItemRequestAnsweredEvent(
+                    request.getId(), request.getRequestor().getId(), snapshot));
+        }
 
         log.info("Successfully added item: ID={}, Name='{}', Owner={}, Request={}",
                 savedItem.getId(), savedItem.getName(), ownerId, itemDto.getRequestId());
 
-        return itemMapper.toItemDto(savedItem, ownerId);
+        return itemMapper.toItemDto(savedItem, ownerId, List.of());
     }
 
     @Override
@@ -72,17 +107,44 @@ public class ItemServiceImpl implements ItemService {
         validateOwner(existingItem, ownerId);
 
         updateItemFields(existingItem, itemDto);
+        refreshDuplicateOf(existingItem);
         Item updatedItem = itemRepository.save(existingItem);
+        outboxService.record(OutboxEventType.ITEM_UPDATED, itemId, itemMapper.toSimpleItemDto(updatedItem));
+        eventPublisher.publishEvent(new ItemCatalogChangedEvent(itemId));
 
         log.debug("Updated item: ID={}", itemId);
-        return itemMapper.toItemDto(updatedItem, ownerId);
+        return itemMapper.toItemDto(updatedItem, ownerId, commentRepository.findByItemIdOrderById(itemId));
+    }
+
+    /**
+     * Strong validator for {@link #getItemById}: the item version, the comment aggregate and, for the owner,
+     * the current last/next bookings. Built from a single aggregate query and a stats lookup, without mapping.
+     */
+    @Override
+    public String getItemETag(Long itemId, Long userId) {
+        ItemVersionView view = itemRepository.findVersionViewById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found with id: " + itemId));
+
+        StringBuilder etag = new StringBuilder("\"item-").append(itemId)
+                .append('-').append(view.getVersion())
+                .append('-').append(view.getCommentCount())
+                .append('.').append(view.getLastCommentId())
+                .append('.').append(view.getCommentAuthorsVersion());
+        if (view.getOwnerId().equals(userId)) {
+            etag.append("-o");
+            if (view.getAvailable()) {
+                ItemBookingStats stats = bookingStatsService.getCurrentStats(itemId);
+                etag.append(stats.getLastBookingId()).append('.').append(stats.getNextBookingId());
+            }
+        }
+        return etag.append('"').toString();
     }
 
     @Override
     public ItemDto getItemById(Long itemId, Long userId) {
         log.debug("Fetching item by ID: {} for user ID: {}", itemId, userId);
         Item item = getItemEntityById(itemId);
-        return itemMapper.toItemDto(item, userId);
+        return itemMapper.toItemDto(item, userId, commentRepository.findByItemIdOrderById(itemId));
     }
 
     @Override
@@ -90,24 +152,124 @@ public class ItemServiceImpl implements ItemService {
         log.debug("Fetching all items for owner ID: {}", ownerId);
 
         List<Item> items = itemRepository.findByOwnerIdOrderById(ownerId);
-        return items.stream()
-                .map(item -> itemMapper.toItemDto(item, ownerId)) // ownerId для показа бронирований
-                .collect(Collectors.toList());
+        return toItemDtos(items, ownerId); // ownerId для показа бронирований
     }
 
     @Override
-    public List<ItemDto> searchItems(String text) {
-        log.debug("Searching items by text: '{}'", text);
+    public List<ItemDto> searchItems(String text, boolean fuzzy, ItemSearchFilter filter, int from, int size) {
+        log.debug("Searching items by text: '{}', fuzzy: {}, filter: {}, from: {}, size: {}",
+                text, fuzzy, filter, from, size);
 
+        if (from < 0) {
+            throw new ValidationException("'from' must be positive or zero");
+        }
+        if (size <= 0) {
+            throw new ValidationException("'size' must be positive");
+        }
+        if ((long) from + size > MAX_SEARCH_DEPTH) {
+            throw new ValidationException("Search results can be paged only up to position " + MAX_SEARCH_DEPTH);
+        }
         if (text.isBlank()) {
             return Collections.emptyList();
         }
+        if (filter.hasDateRange() && (filter.start() == null || filter.end() == null
+                || !filter.start().isBefore(filter.end()))) {
+            throw new ValidationException("Search period needs both start and end, with start before end");
+        }
+
+        // фасеты считаются по битовым индексам до поиска по тексту
+        Roaring64Bitmap facets = filter.hasFacets() ? facetIndex.matching(filter) : null;
+        if (facets != null && facets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LongPredicate passes = facets == null ? id -> true : facets::contains;
+
+        // страница номер from / size, как и в остальных списках
+        int offset = from / size * size;
+        List<Long> ids;
+        if (fuzzy) {
+            // нечёткий индекс знает только доступные вещи
+            ids = filter.availableItems()
+                    ? fuzzyIndex.search(text).stream().filter(passes::test).toList()
+                    : List.of();
+            if (filter.hasDateRange() && !ids.isEmpty()) {
+                Set<Long> booked = bookingRepository.findItemIdsBookedBetween(ids, filter.start(), filter.end());
+                ids = ids.stream().filter(id -> !booked.contains(id)).toList();
+            }
+        } else {
+            ids = topScoredIds(text.toLowerCase(Locale.ROOT), filter, passes, offset + size);
+        }
+        if (ids.size() <= offset) {
+            return Collections.emptyList();
+        }
+        List<Item> items = loadMatching(ids.subList(offset, Math.min(ids.size(), offset + size)),
+                filter.availableItems());
+        return toItemDtos(items, null); // null userId - не показываем бронирования
+    }
+
+    @Override
+    public List<ItemSuggestionDto> suggestItems(String prefix, int size) {
+        return suggestIndex.suggest(prefix, size);
+    }
+
+    /**
+     * Ids of the {@code limit} most relevant matches, best first. Candidates are streamed through a min-heap of
+     * at most that size, so memory and sorting stay proportional to the requested page rather than to the match
+     * count. The heap grows on demand: a deep page with few matches should not allocate for the whole depth.
+     * With a date range the database drops items booked in it while streaming.
+     */
+    private List<Long> topScoredIds(String text, ItemSearchFilter filter, LongPredicate passes, int limit) {
+        PriorityQueue<ScoredId> best = new PriorityQueue<>(BY_RELEVANCE.reversed());
+        try (Stream<ItemSearchView> candidates = filter.hasDateRange()
+                ? itemRepository.streamSearchViewsFreeBetween(text, filter.availableItems(), filter.start(),
+                        filter.end())
+                : itemRepository.streamSearchViews(text, filter.availableItems())) {
+            candidates.filter(candidate -> passes.test(candidate.getId())).forEach(candidate -> {
+                best.offer(new ScoredId(candidate.getId(),
+                        ItemRelevance.score(text, candidate.getName(), candidate.getDescription())));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+        }
+
+        List<ScoredId> ranked = new ArrayList<>(best);
+        ranked.sort(BY_RELEVANCE);
+        return ranked.stream().map(ScoredId::id).toList();
+    }
 
-        return itemRepository.searchAvailableItems(text.toLowerCase()).stream()
-                .map(item -> itemMapper.toItemDto(item, null)) // null userId - не показываем бронирования
+    /**
+     * Items in the order of the given ids. Fuzzy ids come from an index that follows writes through the outbox,
+     * so rows whose availability changed in the meantime are filtered out here.
+     */
+    private List<Item> loadMatching(List<Long> ids, boolean available) {
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(item -> item != null && item.getAvailable() == available && item.getDuplicateOf() == null)
+                .toList();
+    }
+
+    /**
+     * Maps a page of items with all of their comments and authors fetched in one query.
+     */
+    private List<ItemDto> toItemDtos(List<Item> items, Long userId) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, List<Comment>> commentsByItem = commentRepository.findByItemIdInOrderById(
+                        items.stream().map(Item::getId).toList()).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        return items.stream()
+                .map(item -> itemMapper.toItemDto(item, userId, commentsByItem.getOrDefault(item.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
+    private record ScoredId(Long id, int score) {
+    }
+
     @Override
     public Item getItemEntityById(Long itemId) {
         return itemRepository.findById(itemId)
@@ -128,7 +290,10 @@ public class ItemServiceImpl implements ItemService {
         log.debug("Added comment: ID={}, Item={}, Author={}",
                 savedComment.getId(), itemId, userId);
 
-        return CommentMapper.toCommentDto(savedComment);
+        CommentDto response = CommentMapper.toCommentDto(savedComment);
+        outboxService.record(OutboxEventType.COMMENT_ADDED, savedComment.getId(), response);
+        eventPublisher.publishEvent(new ItemCatalogChangedEvent(itemId));
+        return response;
     }
 
     private void validateOwner(Item item, Long ownerId) {
@@ -143,6 +308,32 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) item.setAvailable(itemDto.getAvailable());
     }
 
+    /**
+     * An edit can turn a relisting into a listing of its own or the other way round, so the flag is worked out
+     * again from the new text. Duplicates of this item that it no longer resembles, that would now point at
+     * a duplicate, or whose original is no longer available, are unflagged; the nightly job regroups them if
+     * they still resemble each other.
+     */
+    private void refreshDuplicateOf(Item item) {
+        Long ownerId = item.getOwner().getId();
+        Long originalId = duplicateIndex.findOriginal(ownerId, item.getId(), item.getName(), item.getDescription())
+                .orElse(null);
+        if (!Objects.equals(originalId, item.getDuplicateOf())) {
+            log.info("Item ID: {} of owner ID: {} is now {}", item.getId(), ownerId,
+                    originalId == null ? "a listing of its own" : "a relisting of item ID: " + originalId);
+            item.setDuplicateOf(originalId);
+        }
+
+        for (Item duplicate : itemRepository.findByDuplicateOf(item.getId())) {
+            if (originalId != null || !item.getAvailable() || !ItemDuplicateIndex.nearDuplicates(item.getName(), item.getDescription(),
+                    duplicate.getName(), duplicate.getDescription())) {
+                duplicate.setDuplicateOf(null);
+                outboxService.record(OutboxEventType.ITEM_UPDATED, duplicate.getId(),
+                        itemMapper.toSimpleItemDto(duplicate));
+            }
+        }
+    }
+
     private void validateBookingForComment(Long itemId, Long userId) {
         if (bookingRepository.findCompletedBookingsForComment(itemId, userId).isEmpty()) {
             throw new ValidationException("User has not booked this item or booking is not completed yet");
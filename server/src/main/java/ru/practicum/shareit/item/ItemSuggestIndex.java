@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
+import ru.practicum.shareit.outbox.OutboxSubscriber;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory prefix index over the names of available items, for autocomplete without touching the database.
+ * Names are keys of a sorted map from every word on, so a prefix lookup is one range scan; matches are ranked
+ * by popularity (number of bookings). Loaded once on startup and kept current from the outbox.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSuggestIndex implements OutboxSubscriber {
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry entry) -> entry.popularity.get()).reversed()
+            .thenComparingInt(entry -> entry.name.length())
+            .thenComparingLong(entry -> entry.id);
+
+    private final ItemRepository itemRepository;
+    private final OutboxService outboxService;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> itemsByTerm = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ItemSuggestionView> items = itemRepository.findSuggestionViews();
+        items.forEach(item -> index(item.getId(), item.getName(), item.getPopularity()));
+        log.info("Suggestion index loaded: {} items, {} terms", entries.size(), itemsByTerm.size());
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String key = ItemNames.normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // min-heap of the best matches so far, its head is the weakest
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        Set<Long> seen = new HashSet<>();
+        ConcurrentNavigableMap<String, Set<Long>> range = itemsByTerm.subMap(key, true, key + Character.MAX_VALUE, false);
+        for (Set<Long> ids : range.values()) {
+            for (Long id : ids) {
+                Entry entry = entries.get(id);
+                if (entry != null && seen.add(id)) {
+                    best.offer(entry);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+
+        List<Entry> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream()
+                .map(entry -> new ItemSuggestionDto(entry.id, entry.name))
+                .toList();
+    }
+
+    @Override
+    public boolean supports(OutboxEventType type) {
+        return type == OutboxEventType.ITEM_CREATED
+                || type == OutboxEventType.ITEM_UPDATED
+                || type == OutboxEventType.ITEM_DELETED
+                || type == OutboxEventType.BOOKING_CREATED;
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event) {
+        if (event.getType() == OutboxEventType.BOOKING_CREATED) {
+            Entry entry = entries.get(outboxService.readPayload(event, BookingResponseDto.class).getItem().getId());
+            if (entry != null) {
+                entry.popularity.incrementAndGet();
+            }
+            return;
+        }
+
+        // popularity is counted only here, so a renamed item keeps the bookings it has collected so far
+        itemRepository.findSearchableById(event.getAggregateId()).ifPresentOrElse(item -> {
+            Entry current = entries.get(item.getId());
+            index(item.getId(), item.getName(), current != null ? current.popularity.get() : 0);
+        }, () -> remove(event.getAggregateId()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    synchronized void index(Long id, String name, long popularity) {
+        remove(id);
+        Entry entry = new Entry(id, name, terms(name), new AtomicLong(popularity));
+        entries.put(id, entry);
+        for (String term : entry.terms) {
+            itemsByTerm.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    synchronized void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String term : entry.terms) {
+            itemsByTerm.computeIfPresent(term, (t, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * The name from each word on, so a prefix may start at any word and run across the following ones.
+     */
+    private static Set<String> terms(String name) {
+        Set<String> terms = new HashSet<>();
+        String normalized = ItemNames.normalize(name);
+        int start = 0;
+        while (start < normalized.length()) {
+            terms.add(normalized.substring(start));
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? normalized.length() : space + 1;
+        }
+        return terms;
+    }
+
+    private record Entry(Long id, String name, Set<String> terms, AtomicLong popularity) {
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Everything the suggestion index keeps about an available item.
+ */
+public interface ItemSuggestionView {
+    Long getId();
+
+    String getName();
+
+    Long getPopularity();
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Everything an item representation depends on, apart from booking stats: used to build its ETag.
+ */
+public interface ItemVersionView {
+    Long getVersion();
+
+    Long getOwnerId();
+
+    Boolean getAvailable();
+
+    Long getCommentCount();
+
+    Long getLastCommentId();
+
+    Long getCommentAuthorsVersion();
+}
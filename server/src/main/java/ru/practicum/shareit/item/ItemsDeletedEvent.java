@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published when items are removed by a database cascade rather than through JPA.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemsDeletedEvent {
+    private final List<Long> itemIds;
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 64-bit SimHash of a text: every word and pair of adjacent words votes on each bit through its own hash, so
+ * texts sharing most of their words get signatures a few bits apart.
+ */
+final class SimHash {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SimHash() {
+    }
+
+    static long of(String text) {
+        List<String> words = ItemNames.words(text);
+        int[] votes = new int[Long.SIZE];
+        for (int i = 0; i < words.size(); i++) {
+            vote(votes, hash(words.get(i)));
+            if (i + 1 < words.size()) {
+                vote(votes, hash(words.get(i) + ' ' + words.get(i + 1)));
+            }
+        }
+
+        long signature = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (votes[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void vote(int[] votes, long hash) {
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            votes[bit] += (hash >>> bit & 1) != 0 ? 1 : -1;
+        }
+    }
+
+    /**
+     * FNV-1a with a final avalanche, so similar words do not get similar hashes.
+     */
+    private static long hash(String feature) {
+        long hash = FNV_OFFSET;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
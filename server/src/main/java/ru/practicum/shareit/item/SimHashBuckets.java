@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import java.util.*;
+
+/**
+ * LSH over SimHash signatures: each signature is cut into five 12-bit bands and filed under every band. Two
+ * signatures at most four bits apart agree on at least one whole band, so comparing against the items sharing a
+ * band finds every near-duplicate. Not thread-safe.
+ */
+final class SimHashBuckets {
+    static final int MAX_DISTANCE = 4;
+    private static final int BANDS = MAX_DISTANCE + 1;
+    private static final int BAND_BITS = Long.SIZE / BANDS;
+    private static final long BAND_MASK = (1L << BAND_BITS) - 1;
+
+    private final Map<Long, Set<Long>> idsByBand = new HashMap<>();
+    private final Map<Long, Long> signatures = new HashMap<>();
+
+    void add(Long id, long signature) {
+        remove(id);
+        signatures.put(id, signature);
+        for (int band = 0; band < BANDS; band++) {
+            idsByBand.computeIfAbsent(bandKey(band, signature), key -> new HashSet<>()).add(id);
+        }
+    }
+
+    void remove(Long id) {
+        Long signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(band, signature);
+            Set<Long> ids = idsByBand.get(key);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByBand.remove(key);
+            }
+        }
+    }
+
+    /**
+     * The lowest id within {@link #MAX_DISTANCE} bits of the signature, that is, the oldest near-duplicate.
+     */
+    Optional<Long> nearest(long signature) {
+        return nearest(signature, Long.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #nearest(long)}, among ids below {@code olderThan} only.
+     */
+    Optional<Long> nearest(long signature, long olderThan) {
+        Long nearest = null;
+        for (int band = 0; band < BANDS; band++) {
+            for (Long id : idsByBand.getOrDefault(bandKey(band, signature), Set.of())) {
+                if (id < olderThan && (nearest == null || id < nearest)
+                        && SimHash.distance(signatures.get(id), signature) <= MAX_DISTANCE) {
+                    nearest = id;
+                }
+            }
+        }
+        return Optional.ofNullable(nearest);
+    }
+
+    boolean isEmpty() {
+        return signatures.isEmpty();
+    }
+
+    private static long bandKey(int band, long signature) {
+        return ((long) band << BAND_BITS) | ((signature >>> band * BAND_BITS) & BAND_MASK);
+    }
+}
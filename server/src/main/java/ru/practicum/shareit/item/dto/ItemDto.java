@@ -17,6 +17,7 @@ public class ItemDto {
     private Boolean available;
     private Long ownerId;
     private Long requestId;
+    private Long duplicateOf;
     private BookingInfoDto lastBooking;
     private BookingInfoDto nextBooking;
     private List<CommentDto> comments;
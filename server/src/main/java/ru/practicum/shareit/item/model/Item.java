@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.request.ItemRequest;
@@ -10,6 +12,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "items")
 @Getter
 @Setter
@@ -30,6 +34,10 @@ public class Item {
     @Column(name = "available", nullable = false)
     private Boolean available;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
@@ -38,7 +46,16 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    // оригинал, если это повторное объявление того же владельца
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+
     @OneToMany(mappedBy = "item", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @Builder.Default
     private List<Comment> comments = new ArrayList<>();
+
+    // попадает ли вещь в поиск: доступна и не повторяет другое объявление
+    public boolean isSearchable() {
+        return Boolean.TRUE.equals(available) && duplicateOf == null;
+    }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.outbox;
+
+public enum OutboxEventType {
+    BOOKING_CREATED,         // Создано бронирование
+    BOOKING_STATUS_CHANGED,  // Бронирование подтверждено или отклонено
+    ITEM_CREATED,            // Добавлена вещь
+    ITEM_UPDATED,            // Вещь изменена владельцем
+    ITEM_DELETED,            // Вещь удалена вместе с владельцем
+    COMMENT_ADDED,           // Добавлен отзыв
+    REQUEST_CREATED,         // Создан запрос на вещь
+    REQUEST_DELETED          // Запрос удалён вместе с автором
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the outbox in id order and hands each event to every interested {@link OutboxSubscriber}.
+ * An event is marked published only after all subscribers accepted it; a failing event stops the
+ * batch and is retried on the next run, until {@code max-attempts} is reached and it is parked: kept with
+ * {@code parked_at} set, skipped by delivery and by the purge, so it can be inspected and replayed by hand.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectProvider<OutboxSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       ObjectProvider<OutboxSubscriber> subscribers,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${shareit.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxRepository = outboxRepository;
+        this.subscribers = subscribers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay-delay-ms:1000}",
+            initialDelayString = "${shareit.outbox.relay-delay-ms:1000}")
+    public void relay() {
+        int delivered;
+        do {
+            delivered = relayBatch();
+        } while (delivered == BATCH_SIZE);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.purge-delay-ms:3600000}",
+            initialDelayString = "${shareit.outbox.purge-delay-ms:3600000}")
+    public void purge() {
+        Integer removed = transactionTemplate.execute(status ->
+                outboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (removed != null && removed > 0) {
+            log.debug("Purged {} published outbox events", removed);
+        }
+    }
+
+    /**
+     * Delivers one batch and returns how many events were completed, delivered or parked; fewer than the
+     * batch size means the outbox is drained or delivery stopped on a failing event.
+     */
+    int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status ->
+                outboxRepository.findByPublishedAtIsNullAndParkedAtIsNullOrderById(PageRequest.of(0, BATCH_SIZE)));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> delivered = new ArrayList<>(batch.size());
+        int completed = 0;
+        for (OutboxEvent event : batch) {
+            Outcome outcome = dispatch(event);
+            if (outcome == Outcome.RETRY) {
+                break;
+            }
+            if (outcome == Outcome.DELIVERED) {
+                delivered.add(event.getId());
+            }
+            completed++;
+        }
+
+        if (!delivered.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.markPublished(delivered, LocalDateTime.now()));
+            log.debug("Relayed {} outbox event(s)", delivered.size());
+        }
+        return completed;
+    }
+
+    private Outcome dispatch(OutboxEvent event) {
+        try {
+            subscribers.orderedStream()
+                    .filter(subscriber -> subscriber.supports(event.getType()))
+                    .forEach(subscriber -> subscriber.onEvent(event));
+            return Outcome.DELIVERED;
+        } catch (RuntimeException e) {
+            int attempts = event.getAttempts() + 1;
+            String error = truncate(String.valueOf(e.getMessage()));
+            boolean park = attempts >= maxAttempts;
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxRepository.recordFailure(event.getId(), attempts, error);
+                if (park) {
+                    outboxRepository.markParked(event.getId(), LocalDateTime.now());
+                }
+            });
+
+            if (park) {
+                log.error("Parking outbox event {} ({}) after {} attempts", event.getId(), event.getType(),
+                        attempts, e);
+                return Outcome.PARKED;
+            }
+            log.warn("Outbox event {} ({}) failed, attempt {}: {}", event.getId(), event.getType(), attempts,
+                    e.getMessage());
+            return Outcome.RETRY;
+        }
+    }
+
+    private enum Outcome { DELIVERED, PARKED, RETRY }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxService {
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Appends an event to the outbox. Must join the caller's transaction, so the event
+     * is stored if and only if the change it describes is committed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, Long aggregateId, Object payload) {
+        OutboxEvent event = OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(write(payload))
+                .createdAt(LocalDateTime.now())
+                .build();
+        outboxRepository.save(event);
+        log.trace("Recorded outbox event {} for aggregate {}", type, aggregateId);
+    }
+
+    public <T> T readPayload(OutboxEvent event, Class<T> type) {
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload of outbox event " + event.getId(), e);
+        }
+    }
+
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.outbox;
+
+/**
+ * In-process consumer of outbox events. Delivery is at-least-once and in id order. Ids are allocated on
+ * insert, so two concurrent transactions can commit in the opposite order and an event may arrive after a
+ * later one. Implementations must tolerate seeing the same event again and should re-read current state
+ * rather than rely on the order.
+ */
+public interface OutboxSubscriber {
+    boolean supports(OutboxEventType type);
+
+    void onEvent(OutboxEvent event);
+}
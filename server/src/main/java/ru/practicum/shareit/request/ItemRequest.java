@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -10,6 +12,8 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item-requests")
 @Table(name = "item_requests")
 @Getter
 @Setter
@@ -29,4 +33,8 @@ public class ItemRequest {
 
     @Column(name = "created", nullable = false)
     private LocalDateTime created = LocalDateTime.now();
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
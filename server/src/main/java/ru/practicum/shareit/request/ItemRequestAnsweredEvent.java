@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Published when an item is added in response to a request; delivered to subscribers after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemRequestAnsweredEvent {
+    private final Long requestId;
+    private final Long requestorId;
+    private final ItemDto item;
+}
@@ -3,7 +3,10 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 
@@ -26,7 +29,7 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getAllRequestsForUser(
+    public List<ItemRequestResponseDto> getAllRequestsForUser(
             @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.debug("Server: Getting requests for user ID: {}", userId);
         return requestService.getAllRequestsForUser(userId);
@@ -41,11 +44,22 @@ public class ItemRequestController {
         return requestService.getAllRequests(userId, from, size);
     }
 
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToAnswers(
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.debug("Server: Subscribing user ID: {} to request answers", userId);
+        return requestService.subscribeToAnswers(userId);
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestResponseDto getRequestById(
             @PathVariable Long requestId,
-            @RequestHeader("X-Sharer-User-Id") Long userId) {
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            WebRequest request) {
         log.debug("Server: Getting request ID: {}", requestId);
+        if (request.checkNotModified(requestService.getRequestETag(requestId))) {
+            return null;
+        }
         return requestService.getRequestById(requestId);
     }
 }
@@ -27,23 +27,19 @@ public class ItemRequestMapper {
         return request;
     }
 
-    public static ItemRequestResponseDto toResponseDto(ItemRequest request, List<ItemDto> items) {
+    public static ItemRequestResponseDto toItemRequestResponseDto(ItemRequest request, List<ItemDto> items,
+                                                                  List<ItemDto> matchedItems) {
         return new ItemRequestResponseDto(
                 request.getId(),
                 request.getDescription(),
                 request.getRequestor().getId(),
                 request.getCreated(),
-                items
+                items,
+                matchedItems
         );
     }
 
     public static ItemRequestResponseDto toItemRequestResponseDto(ItemRequest request, List<ItemDto> items) {
-        return new ItemRequestResponseDto(
-                request.getId(),
-                request.getDescription(),
-                request.getRequestor().getId(),
-                request.getCreated(),
-                items
-        );
+        return toItemRequestResponseDto(request, items, List.of());
     }
 }
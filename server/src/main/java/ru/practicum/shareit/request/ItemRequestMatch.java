@@ -0,0 +1,31 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An item that looks like an answer to an open request, found by {@link ItemRequestPercolator}.
+ */
+@Entity
+@Table(name = "item_request_matches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemRequestMatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "matched_at", nullable = false)
+    private LocalDateTime matchedAt;
+}
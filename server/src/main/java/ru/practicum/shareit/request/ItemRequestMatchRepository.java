@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemRequestMatchRepository extends JpaRepository<ItemRequestMatch, Long> {
+    List<ItemRequestMatch> findByItemId(Long itemId);
+
+    List<ItemRequestMatch> findByRequestIdInOrderByMatchedAt(Collection<Long> requestIds);
+}
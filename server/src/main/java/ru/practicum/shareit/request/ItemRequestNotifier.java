@@ -0,0 +1,98 @@
+package ru.practicum.shareit.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps open server-sent-event subscriptions per requester and pushes items answering their requests.
+ */
+@Component
+@Slf4j
+public class ItemRequestNotifier {
+    static final String ITEM_EVENT = "item";
+
+    private final Map<Long, List<SseEmitter>> subscriptions = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+
+    public ItemRequestNotifier(@Value("${shareit.requests.subscription-timeout-ms:300000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        subscriptions.compute(userId, (id, emitters) -> {
+            List<SseEmitter> target = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            target.add(emitter);
+            return target;
+        });
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        // Первый комментарий сразу отправляет заголовки ответа, чтобы прокси не ждал первого события
+        send(userId, emitter, SseEmitter.event().comment("subscribed"));
+        log.debug("User {} subscribed to request answers", userId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemAnswered(ItemRequestAnsweredEvent event) {
+        List<SseEmitter> emitters = subscriptions.get(event.getRequestorId());
+        if (emitters == null) {
+            return;
+        }
+
+        log.debug("Pushing item {} for request {} to {} subscriber(s) of user {}",
+                event.getItem().getId(), event.getRequestId(), emitters.size(), event.getRequestorId());
+        for (SseEmitter emitter : emitters) {
+            send(event.getRequestorId(), emitter, SseEmitter.event()
+                    .name(ITEM_EVENT)
+                    .id(String.valueOf(event.getItem().getId()))
+                    .data(event.getItem()));
+        }
+    }
+
+    /**
+     * Periodic comment line so idle connections are detected and intermediaries do not time them out.
+     */
+    @Scheduled(fixedDelayString = "${shareit.requests.heartbeat-ms:30000}",
+            initialDelayString = "${shareit.requests.heartbeat-ms:30000}")
+    public void heartbeat() {
+        subscriptions.forEach((userId, emitters) ->
+                emitters.forEach(emitter -> send(userId, emitter, SseEmitter.event().comment("ping"))));
+    }
+
+    int subscriberCount(Long userId) {
+        List<SseEmitter> emitters = subscriptions.get(userId);
+        return emitters == null ? 0 : emitters.size();
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping subscription of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        subscriptions.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemNames;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
+import ru.practicum.shareit.outbox.OutboxSubscriber;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reverse search: open request descriptions are standing queries, and every new or changed item is run against
+ * all of them at once. Queries are kept as an inverted index from term to request, so matching an item touches
+ * only the requests that share a term with it, however many requests are open. A request matches when the item
+ * contains at least half of its terms. Matches are stored for the requestor's request list.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemRequestPercolator implements OutboxSubscriber {
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "with", "need", "needs", "looking", "want", "some", "any", "please", "who", "has",
+            "нужна", "нужен", "нужно", "нужны", "ищу", "для", "кто", "есть", "или", "как", "что", "пожалуйста");
+
+    private final ItemRequestRepository requestRepository;
+    private final ItemRequestMatchRepository matchRepository;
+    private final ItemRepository itemRepository;
+    private final OutboxService outboxService;
+
+    private final Map<Long, StandingQuery> queries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> requestsByTerm = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        requestRepository.findOpenRequestViews()
+                .forEach(request -> register(request.getId(), request.getRequestorId(), request.getDescription()));
+        log.info("Request percolator loaded: {} open requests, {} terms", queries.size(), requestsByTerm.size());
+    }
+
+    /**
+     * Ids of the open requests the item answers, leaving out the owner's own requests.
+     */
+    public Set<Long> percolate(Long ownerId, String name, String description) {
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String term : terms(name + " " + Objects.toString(description, ""))) {
+            for (Long requestId : requestsByTerm.getOrDefault(term, Set.of())) {
+                hits.merge(requestId, 1, Integer::sum);
+            }
+        }
+
+        Set<Long> matched = new HashSet<>();
+        hits.forEach((requestId, count) -> {
+            StandingQuery query = queries.get(requestId);
+            if (query != null && count >= query.required() && !query.requestorId().equals(ownerId)) {
+                matched.add(requestId);
+            }
+        });
+        return matched;
+    }
+
+    @Override
+    public boolean supports(OutboxEventType type) {
+        return type == OutboxEventType.REQUEST_CREATED
+                || type == OutboxEventType.REQUEST_DELETED
+                || type == OutboxEventType.ITEM_CREATED
+                || type == OutboxEventType.ITEM_UPDATED;
+    }
+
+    @Override
+    @Transactional
+    public void onEvent(OutboxEvent event) {
+        if (event.getType() == OutboxEventType.REQUEST_CREATED) {
+            ItemRequestDto request = outboxService.readPayload(event, ItemRequestDto.class);
+            register(request.getId(), request.getRequestorId(), request.getDescription());
+            return;
+        }
+        if (event.getType() == OutboxEventType.REQUEST_DELETED) {
+            unregister(event.getAggregateId());
+            return;
+        }
+
+        Optional<Item> found = itemRepository.findById(event.getAggregateId());
+        if (found.isEmpty()) {
+            return;
+        }
+        Item item = found.get();
+        if (item.getRequest() != null) {
+            // ответ на запрос получен — запрос больше не открыт
+            unregister(item.getRequest().getId());
+        }
+        Set<Long> matched = item.isSearchable()
+                ? percolate(item.getOwner().getId(), item.getName(), item.getDescription())
+                : Set.of();
+        storeMatches(item.getId(), matched);
+    }
+
+    /**
+     * Brings the stored matches of the item in line with the current ones; matches that still hold keep their
+     * original time, so a redelivered event changes nothing. Requests deleted since they were registered are
+     * dropped from the standing queries rather than stored.
+     */
+    private void storeMatches(Long itemId, Set<Long> matched) {
+        Set<Long> requestIds = matched.isEmpty() ? Set.of() : requestRepository.findExistingIds(matched);
+        matched.stream().filter(requestId -> !requestIds.contains(requestId)).forEach(this::unregister);
+
+        List<ItemRequestMatch> stored = matchRepository.findByItemId(itemId);
+        Set<Long> storedRequestIds = stored.stream().map(ItemRequestMatch::getRequestId).collect(Collectors.toSet());
+
+        matchRepository.deleteAll(stored.stream().filter(match -> !requestIds.contains(match.getRequestId())).toList());
+        LocalDateTime now = LocalDateTime.now();
+        matchRepository.saveAll(requestIds.stream()
+                .filter(requestId -> !storedRequestIds.contains(requestId))
+                .map(requestId -> ItemRequestMatch.builder().requestId(requestId).itemId(itemId).matchedAt(now).build())
+                .toList());
+    }
+
+    int size() {
+        return queries.size();
+    }
+
+    synchronized void register(Long requestId, Long requestorId, String description) {
+        if (queries.containsKey(requestId)) {
+            return;
+        }
+        Set<String> terms = terms(description).stream().limit(MAX_QUERY_TERMS).collect(Collectors.toSet());
+        if (terms.isEmpty()) {
+            return;
+        }
+        queries.put(requestId, new StandingQuery(requestorId, terms, (terms.size() + 1) / 2));
+        for (String term : terms) {
+            requestsByTerm.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(requestId);
+        }
+    }
+
+    synchronized void unregister(Long requestId) {
+        StandingQuery query = queries.remove(requestId);
+        if (query == null) {
+            return;
+        }
+        for (String term : query.terms()) {
+            requestsByTerm.computeIfPresent(term, (t, ids) -> {
+                ids.remove(requestId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static Set<String> terms(String text) {
+        return ItemNames.words(text).stream()
+                .filter(word -> word.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(word))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private record StandingQuery(Long requestorId, Set<String> terms, int required) {
+    }
+}
@@ -3,13 +3,35 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByRequestorIdOrderByCreatedDesc(Long requestorId);
 
     Page<ItemRequest> findByRequestorIdNot(Long requestorId, Pageable pageable);
+
+    @Query("SELECT r.version AS version, COUNT(i.id) AS itemCount, COALESCE(MAX(i.id), 0) AS lastItemId, " +
+            "COALESCE(SUM(i.version), 0) AS itemsVersion, " +
+            "(SELECT COUNT(m.id) FROM ItemRequestMatch m WHERE m.requestId = r.id) AS matchCount, " +
+            "(SELECT COALESCE(MAX(m.id), 0) FROM ItemRequestMatch m WHERE m.requestId = r.id) AS lastMatchId, " +
+            "(SELECT COALESCE(SUM(mi.version), 0) FROM ItemRequestMatch m JOIN Item mi ON mi.id = m.itemId " +
+            "WHERE m.requestId = r.id) AS matchedItemsVersion " +
+            "FROM ItemRequest r LEFT JOIN Item i ON i.request = r " +
+            "WHERE r.id = :requestId GROUP BY r.id, r.version")
+    Optional<ItemRequestVersionView> findVersionViewById(@Param("requestId") Long requestId);
+
+    @Query("SELECT r.id AS id, r.description AS description, r.requestor.id AS requestorId " +
+            "FROM ItemRequest r WHERE NOT EXISTS (SELECT i.id FROM Item i WHERE i.request = r)")
+    List<OpenItemRequestView> findOpenRequestViews();
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
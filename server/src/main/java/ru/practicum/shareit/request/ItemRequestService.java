@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 
@@ -10,7 +11,11 @@ public interface ItemRequestService {
 
     ItemRequestResponseDto getRequestById(Long requestId);
 
-    List<ItemRequestDto> getAllRequestsForUser(Long userId);
+    String getRequestETag(Long requestId);
+
+    List<ItemRequestResponseDto> getAllRequestsForUser(Long userId);
 
     List<ItemRequestDto> getAllRequests(Long userId, int from, int size);
+
+    SseEmitter subscribeToAnswers(Long userId);
 }
@@ -7,11 +7,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.user.UserService;
@@ -19,6 +23,8 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static io.micrometer.common.util.StringUtils.truncate;
@@ -32,6 +38,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final ItemMapper itemMapper;
+    private final ItemRequestNotifier notifier;
+    private final OutboxService outboxService;
+    private final ItemRequestMatchRepository matchRepository;
 
     @Override
     @Transactional
@@ -49,16 +58,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         request.setCreated(LocalDateTime.now());
         ItemRequest savedRequest = requestRepository.save(request);
 
-        log.debug("Created request: ID={}, User={}, Description='{}', Created={}",
-                savedRequest.getId(), userId,
-                truncate(savedRequest.getDescription(), 30),
-                savedRequest.getCreated());
+        if (log.isDebugEnabled()) {
+            log.debug("Created request: ID={}, User={}, Description='{}', Created={}",
+                    savedRequest.getId(), userId,
+                    truncate(savedRequest.getDescription(), 30),
+                    savedRequest.getCreated());
+        }
 
-        return ItemRequestMapper.toItemRequestDto(savedRequest);
+        ItemRequestDto response = ItemRequestMapper.toItemRequestDto(savedRequest);
+        outboxService.record(OutboxEventType.REQUEST_CREATED, savedRequest.getId(), response);
+        return response;
     }
 
     @Override
-    public List<ItemRequestDto> getAllRequestsForUser(Long userId) {
+    public List<ItemRequestResponseDto> getAllRequestsForUser(Long userId) {
         log.debug("Fetching all requests for user ID: {}", userId);
 
         userService.getUserEntityById(userId);
@@ -66,14 +79,53 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<ItemRequest> requests = requestRepository
                 .findByRequestorIdOrderByCreatedDesc(userId);
 
-        List<ItemRequestDto> result = requests.stream()
-                .map(ItemRequestMapper::toItemRequestDto)
+        if (requests.isEmpty()) {
+            log.debug("Found 0 requests for user ID: {}", userId);
+            return List.of();
+        }
+
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
                 .collect(Collectors.toList());
 
-        log.debug("Found {} requests for user ID: {}", result.size(), userId);
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(
+                        item -> item.getRequest().getId(),
+                        Collectors.mapping(itemMapper::toSimpleItemDto, Collectors.toList())));
+        Map<Long, List<ItemDto>> matchesByRequest = findMatchedItems(requestIds);
+
+        List<ItemRequestResponseDto> result = requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestResponseDto(request,
+                        itemsByRequest.getOrDefault(request.getId(), List.of()),
+                        matchesByRequest.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+
+        log.debug("Found {} requests ({} with items) for user ID: {}",
+                result.size(), itemsByRequest.size(), userId);
         return result;
     }
 
+    /**
+     * Available items the percolator found for the requests, oldest match first, in two queries.
+     */
+    private Map<Long, List<ItemDto>> findMatchedItems(List<Long> requestIds) {
+        List<ItemRequestMatch> matches = matchRepository.findByRequestIdInOrderByMatchedAt(requestIds);
+        if (matches.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Item> itemsById = itemRepository.findAllById(
+                        matches.stream().map(ItemRequestMatch::getItemId).distinct().toList()).stream()
+                .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return matches.stream()
+                .filter(match -> itemsById.containsKey(match.getItemId()))
+                .collect(Collectors.groupingBy(
+                        ItemRequestMatch::getRequestId,
+                        Collectors.mapping(match -> itemMapper.toSimpleItemDto(itemsById.get(match.getItemId())),
+                                Collectors.toList())));
+    }
+
     @Override
     public List<ItemRequestDto> getAllRequests(Long userId, int from, int size) {
         log.debug("Fetching all requests (from={}, size={}) excluding user ID: {}", from, size, userId);
@@ -106,6 +158,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return result;
     }
 
+    @Override
+    public String getRequestETag(Long requestId) {
+        ItemRequestVersionView view = requestRepository.findVersionViewById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request not found"));
+        return "\"request-" + requestId + "-" + view.getVersion() + "-" + view.getItemCount()
+                + "." + view.getLastItemId() + "." + view.getItemsVersion()
+                + "-" + view.getMatchCount() + "." + view.getLastMatchId() + "." + view.getMatchedItemsVersion() + "\"";
+    }
+
     @Override
     public ItemRequestResponseDto getRequestById(Long requestId) {
         log.debug("Fetching request by ID: {}", requestId);
@@ -116,27 +177,41 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                     return new NotFoundException("Request not found");
                 });
 
-        log.debug("Found request: ID={}, User={}, Description='{}', Created={}",
-                request.getId(),
-                request.getRequestor().getId(),
-                truncate(request.getDescription(), 30),
-                request.getCreated());
+        if (log.isDebugEnabled()) {
+            log.debug("Found request: ID={}, User={}, Description='{}', Created={}",
+                    request.getId(),
+                    request.getRequestor().getId(),
+                    truncate(request.getDescription(), 30),
+                    request.getCreated());
+        }
 
+        boolean traceEnabled = log.isTraceEnabled();
         List<ItemDto> items = itemRepository.findByRequestId(requestId).stream()
                 .map(item -> {
-                    log.trace("Mapping item for request: ItemID={}, Name='{}'",
-                            item.getId(), truncate(item.getName(), 20));
+                    if (traceEnabled) {
+                        log.trace("Mapping item for request: ItemID={}, Name='{}'",
+                                item.getId(), truncate(item.getName(), 20));
+                    }
                     return itemMapper.toSimpleItemDto(item);
                 })
                 .collect(Collectors.toList());
 
         log.debug("Found {} items for request ID: {}", items.size(), requestId);
 
-        ItemRequestResponseDto response = ItemRequestMapper.toItemRequestResponseDto(request, items);
+        ItemRequestResponseDto response = ItemRequestMapper.toItemRequestResponseDto(request, items,
+                findMatchedItems(List.of(requestId)).getOrDefault(requestId, List.of()));
 
-        log.debug("Returning request response: ID={}, ItemsCount={}",
-                response.getId(), response.getItems().size());
+        log.debug("Returning request response: ID={}, ItemsCount={}, MatchedCount={}",
+                response.getId(), response.getItems().size(), response.getMatchedItems().size());
 
         return response;
     }
+
+    @Override
+    public SseEmitter subscribeToAnswers(Long userId) {
+        log.debug("Subscribing user ID: {} to request answers", userId);
+
+        userService.getUserEntityById(userId);
+        return notifier.subscribe(userId);
+    }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request;
+
+/**
+ * Version of a request and aggregates over the items answering it and the items matched to it, used to build
+ * its ETag.
+ */
+public interface ItemRequestVersionView {
+    Long getVersion();
+
+    Long getItemCount();
+
+    Long getLastItemId();
+
+    Long getItemsVersion();
+
+    Long getMatchCount();
+
+    Long getLastMatchId();
+
+    Long getMatchedItemsVersion();
+}
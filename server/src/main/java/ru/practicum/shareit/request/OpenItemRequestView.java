@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request;
+
+/**
+ * A request no item has answered yet, as the percolator keeps it.
+ */
+public interface OpenItemRequestView {
+    Long getId();
+
+    String getDescription();
+
+    Long getRequestorId();
+}
@@ -19,4 +19,5 @@ public class ItemRequestResponseDto {
     private Long requestorId;
     private LocalDateTime created;
     private List<ItemDto> items;
+    private List<ItemDto> matchedItems;
 }
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.user;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.ItemCatalogVersion;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -14,6 +17,7 @@ import java.util.List;
 @RequestMapping("/users")
 public class UserController {
     private final UserService userService;
+    private final ItemCatalogVersion catalogVersion;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -31,8 +35,11 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
+    public UserDto getUserById(@PathVariable Long userId, WebRequest request) {
         log.debug("Server: Getting user ID: {}", userId);
+        if (request.checkNotModified(userService.getUserETag(userId))) {
+            return null;
+        }
         return userService.getUserById(userId);
     }
 
@@ -44,8 +51,10 @@ public class UserController {
 
     @DeleteMapping("/{userId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteUser(@PathVariable Long userId) {
+    public void deleteUser(@PathVariable Long userId, HttpServletResponse response) {
         log.debug("Server: Deleting user ID: {}", userId);
         userService.deleteUser(userId);
+        // вместе с пользователем удалены его вещи
+        catalogVersion.expose(response);
     }
 }
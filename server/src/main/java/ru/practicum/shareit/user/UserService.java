@@ -12,6 +12,8 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    String getUserETag(Long userId);
+
     List<UserDto> getAllUsers();
 
     void deleteUser(Long userId);
@@ -2,11 +2,21 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemCatalogChangedEvent;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemsDeletedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -18,6 +28,11 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemMapper itemMapper;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -75,6 +90,13 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUserDto(updatedUser);
     }
 
+    @Override
+    public String getUserETag(Long userId) {
+        Long version = userRepository.findVersionById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
+        return "\"user-" + userId + "-" + version + "\"";
+    }
+
     @Override
     public UserDto getUserById(Long userId) {
         log.debug("Fetching user by ID: {}", userId);
@@ -107,8 +129,38 @@ public class UserServiceImpl implements UserService {
             throw new NotFoundException("User not found with id: " + userId);
         }
 
+        // вещи пользователя удаляет каскад в БД, мимо сервиса вещей: ни Hibernate, ни индексы поиска,
+        // ни версия каталога о них не узнают, поэтому сообщаем об удалении отсюда
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
+        deleteRequests(userId, itemIds);
         userRepository.deleteById(userId);
-        log.debug("Deleted user: ID={}", userId);
+        if (!itemIds.isEmpty()) {
+            itemIds.forEach(itemId -> outboxService.record(OutboxEventType.ITEM_DELETED, itemId, itemId));
+            eventPublisher.publishEvent(new ItemsDeletedEvent(itemIds));
+            eventPublisher.publishEvent(new ItemCatalogChangedEvent(itemIds.get(0)));
+        }
+        log.debug("Deleted user: ID={} with {} items", userId, itemIds.size());
+    }
+
+    /**
+     * Deletes the user's requests through Hibernate, so their cache entries go too. Items of other owners that
+     * answered them are detached first, and the percolator is told to drop the requests from its standing queries.
+     */
+    private void deleteRequests(Long userId, List<Long> ownItemIds) {
+        List<ItemRequest> requests = requestRepository.findByRequestorIdOrderByCreatedDesc(userId);
+        if (requests.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).toList();
+        for (Item answer : itemRepository.findByRequestIdIn(requestIds)) {
+            if (!ownItemIds.contains(answer.getId())) {
+                answer.setRequest(null);
+                outboxService.record(OutboxEventType.ITEM_UPDATED, answer.getId(), itemMapper.toSimpleItemDto(answer));
+            }
+        }
+        requestRepository.deleteAll(requests);
+        requestIds.forEach(requestId -> outboxService.record(OutboxEventType.REQUEST_DELETED, requestId, requestId));
+        log.debug("Deleted {} requests of user ID: {}", requestIds.size(), userId);
     }
 
     @Override
@@ -1,3 +1,5 @@
+DROP TABLE IF EXISTS outbox_events CASCADE;
+DROP TABLE IF EXISTS item_booking_stats CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
@@ -8,7 +10,8 @@ DROP TABLE IF EXISTS users CASCADE;
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
-    email VARCHAR(512) NOT NULL UNIQUE
+    email VARCHAR(512) NOT NULL UNIQUE,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- 2. Запросы
@@ -16,7 +19,8 @@ CREATE TABLE IF NOT EXISTS item_requests (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     description TEXT NOT NULL,
     requester_id BIGINT NOT NULL REFERENCES users(id),
-    created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- 3. Итемы
@@ -26,7 +30,10 @@ CREATE TABLE IF NOT EXISTS items (
     description TEXT,
     available BOOLEAN NOT NULL DEFAULT FALSE,
     owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-    request_id BIGINT REFERENCES item_requests(id) ON DELETE SET NULL
+    request_id BIGINT REFERENCES item_requests(id) ON DELETE SET NULL,
+    duplicate_of BIGINT REFERENCES items(id) ON DELETE SET NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uq_items_id_owner UNIQUE (id, owner_id)
 );
 
 -- 4. Бронирования
@@ -35,10 +42,22 @@ CREATE TABLE IF NOT EXISTS bookings (
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     status VARCHAR(20) NOT NULL,
+    phase VARCHAR(20) NOT NULL,
     item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
-    booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE
+    booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    item_owner_id BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    -- владелец вещи продублирован в бронировании; смена владельца каскадно обновляет копию
+    CONSTRAINT fk_bookings_item_owner FOREIGN KEY (item_id, item_owner_id)
+        REFERENCES items (id, owner_id) ON UPDATE CASCADE ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_phase ON bookings (booker_id, phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_phase ON bookings (item_id, phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (item_owner_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_phase ON bookings (item_owner_id, phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
 -- 5. Комментарии
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -46,4 +65,45 @@ CREATE TABLE IF NOT EXISTS comments (
     item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
     author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
-);
\ No newline at end of file
+);
+
+-- 6. Статистика бронирований по вещам
+CREATE TABLE IF NOT EXISTS item_booking_stats (
+    item_id BIGINT PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    booking_count BIGINT NOT NULL DEFAULT 0,
+    approved_count BIGINT NOT NULL DEFAULT 0,
+    last_booked_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_stats_next_start ON item_booking_stats (next_booking_start);
+
+-- 7. Исходящие события (transactional outbox)
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    published_at TIMESTAMP WITHOUT TIME ZONE,
+    parked_at TIMESTAMP WITHOUT TIME ZONE,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published ON outbox_events (published_at, parked_at, id);
+
+-- 8. Подходящие вещи для открытых запросов (найдены перколятором)
+CREATE TABLE IF NOT EXISTS item_request_matches (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id BIGINT NOT NULL REFERENCES item_requests(id) ON DELETE CASCADE,
+    item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    matched_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_item_request_matches UNIQUE (request_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_request_matches_item ON item_request_matches (item_id);
@@ -11,8 +11,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStateSummaryDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -103,6 +106,29 @@ public class BookingControllerTest {
         verify(bookingService).approveBooking(eq(bookingId), eq(userId), eq(approved));
     }
 
+    @Test
+    void approveBookings_ShouldReturnPerBookingResults() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        List<BookingDecisionResultDto> results = List.of(
+                BookingDecisionResultDto.builder().bookingId(1L).status(BookingStatus.APPROVED).build(),
+                BookingDecisionResultDto.builder().bookingId(2L).error("Booking is not in waiting status").build());
+
+        when(bookingService.approveBookings(eq(userId), any())).thenReturn(results);
+
+        mockMvc.perform(patch("/bookings/approve")
+                        .header(userIdHeader, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].error").value("Booking is not in waiting status"));
+
+        verify(bookingService).approveBookings(eq(userId), any());
+    }
+
     @Test
     void getBookingById_ShouldReturnBooking() throws Exception {
         Long bookingId = 1L;
@@ -198,4 +224,33 @@ public class BookingControllerTest {
 
         verify(bookingService).getAllBookingsForOwner(eq(userId), eq(state), eq(from), eq(size));
     }
+
+    @Test
+    void getOwnerBookingSummary_ShouldReturnStateSummaries() throws Exception {
+        int size = 5;
+        BookingResponseDto booking = BookingResponseDto.builder()
+                .id(1L)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.WAITING)
+                .booker(new BookingResponseDto.BookerDto(2L, "Booker Name"))
+                .item(new BookingResponseDto.ItemDto(1L, "Item 1"))
+                .build();
+        List<BookingStateSummaryDto> summary = List.of(
+                new BookingStateSummaryDto("ALL", 1, List.of(booking)),
+                new BookingStateSummaryDto("WAITING", 1, List.of(booking))
+        );
+
+        when(bookingService.getOwnerBookingSummary(eq(userId), eq(size))).thenReturn(summary);
+
+        mockMvc.perform(get("/bookings/owner/summary?size={size}", size)
+                        .header(userIdHeader, userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].state").value("ALL"))
+                .andExpect(jsonPath("$[0].count").value(1))
+                .andExpect(jsonPath("$[1].bookings[0].id").value(1L));
+
+        verify(bookingService).getOwnerBookingSummary(eq(userId), eq(size));
+    }
 }
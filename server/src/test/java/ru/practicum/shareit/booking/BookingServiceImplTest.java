@@ -9,14 +9,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.SelfBookingException;
 import ru.practicum.shareit.exception.UnavailableItemException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemBookingStatsService;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxService;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
@@ -27,6 +31,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +51,12 @@ class BookingServiceImplTest {
     @Mock
     private BookingMapper bookingMapper;
 
+    @Mock
+    private ItemBookingStatsService itemBookingStatsService;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -79,6 +91,7 @@ class BookingServiceImplTest {
         booking.setStart(LocalDateTime.now().plusDays(1));
         booking.setEnd(LocalDateTime.now().plusDays(2));
         booking.setItem(item);
+        booking.setItemOwnerId(owner.getId());
         booking.setBooker(booker);
         booking.setStatus(BookingStatus.WAITING);
 
@@ -170,6 +183,37 @@ class BookingServiceImplTest {
                 () -> bookingService.approveBooking(1L, 999L, true));
     }
 
+    @Test
+    void approveBookings_ShouldBatchValidDecisionsAndReportInvalidOnes() {
+        Booking other = new Booking();
+        other.setId(2L);
+        other.setItem(item);
+        other.setItemOwnerId(999L);
+        other.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findByIdIn(any())).thenReturn(List.of(booking, other));
+        when(bookingRepository.updateWaitingStatus(List.of(1L), BookingStatus.APPROVED)).thenReturn(1);
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(owner.getId(), List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, true),
+                new BookingDecisionDto(3L, false)));
+
+        assertEquals(3, results.size());
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertNotNull(results.get(1).getError());
+        assertNotNull(results.get(2).getError());
+        verify(bookingRepository).updateWaitingStatus(List.of(1L), BookingStatus.APPROVED);
+        verify(bookingRepository, never()).updateWaitingStatus(any(), eq(BookingStatus.REJECTED));
+        verify(itemBookingStatsService).onBookingApproved(booking);
+    }
+
+    @Test
+    void approveBookings_WithEmptyList_ShouldThrowException() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.approveBookings(owner.getId(), List.of()));
+    }
+
     @Test
     void approveBooking_AlreadyApproved_ShouldThrowException() {
         booking.setStatus(BookingStatus.APPROVED);
@@ -7,12 +7,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStateSummaryDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.SelfBookingException;
 import ru.practicum.shareit.exception.UnavailableItemException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemBookingStatsService;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
@@ -20,6 +24,8 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,6 +47,12 @@ class BookingServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookingPhaseRollover bookingPhaseRollover;
+
+    @Autowired
+    private ItemBookingStatsService itemBookingStatsService;
+
     private User owner;
     private User booker;
     private Item availableItem;
@@ -92,6 +104,7 @@ class BookingServiceIntegrationTest {
         Booking dbBooking = bookingRepository.findById(savedBooking.getId()).orElseThrow();
         assertEquals(availableItem.getId(), dbBooking.getItem().getId());
         assertEquals(booker.getId(), dbBooking.getBooker().getId());
+        assertEquals(owner.getId(), dbBooking.getItemOwnerId());
     }
 
     @Test
@@ -135,6 +148,70 @@ class BookingServiceIntegrationTest {
         assertEquals(BookingStatus.APPROVED, dbBooking.getStatus());
     }
 
+    @Test
+    void approveBookings_shouldApplyValidDecisionsAndReportOthers() {
+        BookingResponseDto toApprove = bookingService.createBooking(
+                createTestBookingRequest(availableItem.getId()), booker.getId());
+        BookingResponseDto toReject = bookingService.createBooking(
+                createTestBookingRequest(availableItem.getId()), booker.getId());
+        BookingResponseDto alreadyApproved = bookingService.createBooking(
+                createTestBookingRequest(availableItem.getId()), booker.getId());
+        bookingService.approveBooking(alreadyApproved.getId(), owner.getId(), true);
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(owner.getId(), List.of(
+                new BookingDecisionDto(toApprove.getId(), true),
+                new BookingDecisionDto(toReject.getId(), false),
+                new BookingDecisionDto(alreadyApproved.getId(), false),
+                new BookingDecisionDto(999_999L, true),
+                new BookingDecisionDto(toApprove.getId(), false)));
+
+        assertEquals(5, results.size());
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertEquals(BookingStatus.REJECTED, results.get(1).getStatus());
+        assertNotNull(results.get(2).getError());
+        assertNotNull(results.get(3).getError());
+        assertNotNull(results.get(4).getError());
+
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(toApprove.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(toReject.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.APPROVED,
+                bookingRepository.findById(alreadyApproved.getId()).orElseThrow().getStatus());
+        assertEquals(2, itemBookingStatsService.getCurrentStats(availableItem.getId()).getApprovedCount());
+    }
+
+    @Test
+    void approveBookings_byNonOwner_shouldChangeNothing() {
+        BookingResponseDto savedBooking = bookingService.createBooking(
+                createTestBookingRequest(availableItem.getId()), booker.getId());
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(booker.getId(),
+                List.of(new BookingDecisionDto(savedBooking.getId(), true)));
+
+        assertEquals("User is not the owner of the item", results.get(0).getError());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(savedBooking.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void getBookingETag_shouldTrackBookingAndEmbeddedEntities() {
+        BookingResponseDto savedBooking = bookingService.createBooking(
+                createTestBookingRequest(availableItem.getId()), booker.getId());
+        String created = bookingService.getBookingETag(savedBooking.getId(), booker.getId());
+
+        assertEquals(created, bookingService.getBookingETag(savedBooking.getId(), owner.getId()));
+
+        bookingService.approveBooking(savedBooking.getId(), owner.getId(), true);
+        String approved = bookingService.getBookingETag(savedBooking.getId(), booker.getId());
+        assertNotEquals(created, approved);
+
+        booker.setName("Renamed Booker");
+        userRepository.save(booker);
+        assertNotEquals(approved, bookingService.getBookingETag(savedBooking.getId(), booker.getId()));
+
+        User stranger = userRepository.save(User.builder().name("Stranger").email("stranger@email.com").build());
+        assertThrows(NotFoundException.class, () ->
+                bookingService.getBookingETag(savedBooking.getId(), stranger.getId()));
+    }
+
     @Test
     void approveBooking_withWrongOwner_shouldThrowException() {
         BookingRequestDto bookingRequest = createTestBookingRequest(availableItem.getId());
@@ -242,4 +319,107 @@ class BookingServiceIntegrationTest {
         assertEquals(1, bookingService.getAllBookingsForUser(booker.getId(), "WAITING", 0, 10).size());
         assertEquals(1, bookingService.getAllBookingsForUser(booker.getId(), "REJECTED", 0, 10).size());
     }
+
+    @Test
+    void getOwnerBookingSummary_shouldReturnCountsAndTopBookingsPerState() {
+        Booking pastBooking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(availableItem)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        Booking currentBooking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusHours(1))
+                .end(LocalDateTime.now().plusHours(1))
+                .item(availableItem)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        Booking futureBooking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(availableItem)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+
+        Booking laterBooking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .item(availableItem)
+                .booker(booker)
+                .status(BookingStatus.REJECTED)
+                .build());
+
+        Map<String, BookingStateSummaryDto> summary = bookingService.getOwnerBookingSummary(owner.getId(), 1)
+                .stream()
+                .collect(Collectors.toMap(BookingStateSummaryDto::getState, s -> s));
+
+        assertEquals(6, summary.size());
+        assertEquals(4, summary.get("ALL").getCount());
+        assertEquals(1, summary.get("CURRENT").getCount());
+        assertEquals(1, summary.get("PAST").getCount());
+        assertEquals(2, summary.get("FUTURE").getCount());
+        assertEquals(1, summary.get("WAITING").getCount());
+        assertEquals(1, summary.get("REJECTED").getCount());
+
+        assertEquals(laterBooking.getId(), summary.get("ALL").getBookings().get(0).getId());
+        assertEquals(currentBooking.getId(), summary.get("CURRENT").getBookings().get(0).getId());
+        assertEquals(pastBooking.getId(), summary.get("PAST").getBookings().get(0).getId());
+        assertEquals(laterBooking.getId(), summary.get("FUTURE").getBookings().get(0).getId());
+        assertEquals(1, summary.get("FUTURE").getBookings().size());
+        assertEquals(futureBooking.getId(), summary.get("WAITING").getBookings().get(0).getId());
+        assertEquals(laterBooking.getId(), summary.get("REJECTED").getBookings().get(0).getId());
+    }
+
+    @Test
+    void getOwnerBookingSummary_withoutBookings_shouldReturnZeroCounts() {
+        List<BookingStateSummaryDto> summary = bookingService.getOwnerBookingSummary(owner.getId(), 5);
+
+        assertEquals(6, summary.size());
+        summary.forEach(state -> {
+            assertEquals(0, state.getCount());
+            assertTrue(state.getBookings().isEmpty());
+        });
+    }
+
+    @Test
+    void phaseRollover_shouldAdvanceStartedAndEndedBookings() {
+        Booking started = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusHours(1))
+                .end(LocalDateTime.now().plusHours(1))
+                .item(availableItem)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        Booking ended = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(availableItem)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        assertEquals(BookingPhase.CURRENT, started.getPhase());
+        assertEquals(BookingPhase.PAST, ended.getPhase());
+
+        // phases as they were stored before the bookings started/ended
+        bookingRepository.updatePhase(List.of(started.getId()), BookingPhase.FUTURE);
+        bookingRepository.updatePhase(List.of(ended.getId()), BookingPhase.CURRENT);
+        assertEquals(0, bookingService.getAllBookingsForUser(booker.getId(), "PAST", 0, 10).size());
+
+        bookingPhaseRollover.rollover();
+
+        List<BookingResponseDto> current = bookingService.getAllBookingsForUser(booker.getId(), "CURRENT", 0, 10);
+        List<BookingResponseDto> past = bookingService.getAllBookingsForUser(booker.getId(), "PAST", 0, 10);
+        assertEquals(1, current.size());
+        assertEquals(started.getId(), current.get(0).getId());
+        assertEquals(1, past.size());
+        assertEquals(ended.getId(), past.get(0).getId());
+        assertTrue(bookingService.getAllBookingsForUser(booker.getId(), "FUTURE", 0, 10).isEmpty());
+    }
 }
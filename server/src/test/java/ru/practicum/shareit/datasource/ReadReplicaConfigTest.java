@@ -0,0 +1,36 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "shareit.datasource.replicas.urls=jdbc:h2:mem:testdb_jacoco;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=7"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReadReplicaConfigTest {
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Test
+    void pools_ShouldTakeHikariSettingsAndReplicasShouldBeClosedWithRouter() {
+        HikariDataSource replica = (HikariDataSource) routingDataSource.getReplicas().get(0).getDataSource();
+
+        assertEquals(7, primaryDataSource.getMaximumPoolSize());
+        assertEquals(7, replica.getMaximumPoolSize());
+        assertTrue(replica.isReadOnly());
+
+        routingDataSource.close();
+        assertTrue(replica.isClosed());
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource.Replica first;
+    private ReplicaRoutingDataSource.Replica second;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        first = new ReplicaRoutingDataSource.Replica("replica-0", h2("replica0"));
+        second = new ReplicaRoutingDataSource.Replica("replica-1", h2("replica1"));
+        first.update(true, null);
+        second.update(true, null);
+        routing = new ReplicaRoutingDataSource(h2("primary"), List.of(first, second),
+                new ReadYourWritesTracker(60_000));
+        routing.afterPropertiesSet();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldRotateOverReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Object firstKey = routing.determineCurrentLookupKey();
+        Object secondKey = routing.determineCurrentLookupKey();
+
+        assertNotEquals(firstKey, secondKey);
+        assertTrue(List.of("replica-0", "replica-1").containsAll(List.of(firstKey, secondKey)));
+    }
+
+    @Test
+    void writeTransactions_ShouldUsePrimary() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readsAfterOwnWrite_ShouldStayOnPrimary() {
+        actAs(1L);
+        routing.determineCurrentLookupKey();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        actAs(2L);
+        assertNotEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readsAfterOwnProfileUpdate_ShouldStayOnPrimaryWithoutHeader() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/users/1");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("userId", "1"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        routing.determineCurrentLookupKey();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        actAs(1L);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void newReplica_ShouldStayOutOfRotationUntilChecked() {
+        ReplicaRoutingDataSource.Replica fresh = new ReplicaRoutingDataSource.Replica("replica-2", h2("replica2"));
+        ReplicaRoutingDataSource freshRouting = new ReplicaRoutingDataSource(h2("primary"), List.of(fresh),
+                new ReadYourWritesTracker(60_000));
+        freshRouting.afterPropertiesSet();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, freshRouting.determineCurrentLookupKey());
+
+        new ReplicaHealthChecker(freshRouting, new ReadYourWritesTracker(60_000), "", 2000).check(fresh);
+        assertEquals("replica-2", freshRouting.determineCurrentLookupKey());
+    }
+
+    @Test
+    void unhealthyReplicas_ShouldBeSkipped() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        first.update(false, null);
+
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+
+        second.update(false, null);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void healthCheck_ShouldTakeLaggingOrDownReplicasOutOfRotation() throws SQLException {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60_000);
+
+        new ReplicaHealthChecker(routing, tracker, "SELECT 5000", 2000).check(first);
+        assertFalse(first.isHealthy());
+        assertEquals(5000L, first.getLagMs());
+
+        new ReplicaHealthChecker(routing, tracker, "SELECT 100", 2000).check(first);
+        assertTrue(first.isHealthy());
+
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaRoutingDataSource.Replica unreachable = new ReplicaRoutingDataSource.Replica("replica-2", down);
+        new ReplicaHealthChecker(routing, tracker, "", 2000).check(unreachable);
+        assertFalse(unreachable.isHealthy());
+    }
+
+    private static void actAs(long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Sharer-User-Id", String.valueOf(userId));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCatalogVersionTest {
+
+    @Test
+    void onCatalogChanged_ShouldAdvanceVersion() {
+        long bootTime = System.currentTimeMillis();
+        ItemCatalogVersion catalogVersion = new ItemCatalogVersion();
+        long initial = catalogVersion.current();
+
+        catalogVersion.onCatalogChanged(new ItemCatalogChangedEvent(1L));
+        catalogVersion.onCatalogChanged(new ItemCatalogChangedEvent(2L));
+
+        assertTrue(initial >= bootTime);
+        assertEquals(initial + 2, catalogVersion.current());
+    }
+}
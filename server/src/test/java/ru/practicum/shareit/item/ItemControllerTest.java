@@ -7,10 +7,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,9 +20,12 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +39,9 @@ public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemCatalogVersion catalogVersion;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Long userId = 1L;
     private final String userIdHeader = "X-Sharer-User-Id";
@@ -120,6 +128,21 @@ public class ItemControllerTest {
         verify(itemService).getItemById(itemId, userId);
     }
 
+    @Test
+    void getItemById_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        Long itemId = 1L;
+        String etag = "\"item-1-0-0.0.0\"";
+        when(itemService.getItemETag(itemId, userId)).thenReturn(etag);
+
+        mockMvc.perform(get("/items/" + itemId)
+                        .header(userIdHeader, userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(itemService, never()).getItemById(any(), any());
+    }
+
     @Test
     void getAllItemsByOwner_ShouldReturnItemList() throws Exception {
         List<ItemDto> items = List.of(
@@ -147,17 +170,60 @@ public class ItemControllerTest {
                 ItemDto.builder().id(2L).name("Another text item").available(true).build()
         );
 
-        when(itemService.searchItems(searchText)).thenReturn(items);
+        when(itemService.searchItems(searchText, false, ItemSearchFilter.NONE, 0, 10)).thenReturn(items);
+        when(catalogVersion.current()).thenReturn(42L);
+        doCallRealMethod().when(catalogVersion).expose(any());
 
         mockMvc.perform(get("/items/search")
                         .param("text", searchText)
                         .header(userIdHeader, userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string(ItemCatalogVersion.HEADER, "42"))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[1].id").value(2L))
                 .andExpect(jsonPath("$", hasSize(2)));
 
-        verify(itemService).searchItems(searchText);
+        verify(itemService).searchItems(searchText, false, ItemSearchFilter.NONE, 0, 10);
+    }
+
+    @Test
+    void searchItems_ShouldBindFacetFilters() throws Exception {
+        ItemSearchFilter filter = new ItemSearchFilter(false, 7L, true, 2,
+                LocalDateTime.of(2030, 5, 3, 10, 0), LocalDateTime.of(2030, 5, 5, 18, 0));
+        when(itemService.searchItems("drill", true, filter, 10, 5)).thenReturn(List.of());
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("fuzzy", "true")
+                        .param("available", "false")
+                        .param("ownerId", "7")
+                        .param("answersRequest", "true")
+                        .param("minComments", "2")
+                        .param("start", "2030-05-03T10:00:00")
+                        .param("end", "2030-05-05T18:00:00")
+                        .param("from", "10")
+                        .param("size", "5")
+                        .header(userIdHeader, userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(itemService).searchItems("drill", true, filter, 10, 5);
+    }
+
+    @Test
+    void suggestItems_ShouldReturnRankedSuggestions() throws Exception {
+        when(itemService.suggestItems("dri", 5)).thenReturn(List.of(
+                new ItemSuggestionDto(2L, "Drill"),
+                new ItemSuggestionDto(1L, "Cordless drill")));
+
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "dri")
+                        .param("size", "5")
+                        .header(userIdHeader, userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(2L))
+                .andExpect(jsonPath("$[1].name").value("Cordless drill"));
     }
 
     @Test
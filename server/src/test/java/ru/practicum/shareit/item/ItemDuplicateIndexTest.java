@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class ItemDuplicateIndexTest {
+    private static final String DESCRIPTION = "Cordless hammer drill, two batteries, charger and a case with bits";
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ItemDuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index.index(1L, 10L, "Bosch hammer drill", DESCRIPTION);
+        index.index(2L, 10L, "Aluminium ladder", "Folding ladder, 3 m");
+    }
+
+    @Test
+    void findOriginal_ShouldMatchRelistingOfSameOwnerOnly() {
+        assertEquals(Optional.of(1L), index.findOriginal(10L, "Bosch hammer drill", DESCRIPTION));
+        assertEquals(Optional.of(1L), index.findOriginal(10L, "BOSCH hammer-drill!", DESCRIPTION.toUpperCase()));
+        assertEquals(Optional.of(1L), index.findOriginal(10L, "Bosch hammer drill", DESCRIPTION.replace("two", "2")));
+        assertTrue(index.findOriginal(20L, "Bosch hammer drill", DESCRIPTION).isEmpty());
+        assertTrue(index.findOriginal(10L, "Circular saw", "Corded saw with a spare blade").isEmpty());
+    }
+
+    @Test
+    void findOriginal_ForEditedListing_ShouldOnlyMatchOlderListings() {
+        index.index(3L, 10L, "Bosch hammer drill", DESCRIPTION);
+
+        assertEquals(Optional.of(1L), index.findOriginal(10L, 3L, "Bosch hammer drill", DESCRIPTION));
+        assertTrue(index.findOriginal(10L, 1L, "Bosch hammer drill", DESCRIPTION).isEmpty());
+    }
+
+    @Test
+    void simHash_ShouldKeepSimilarTextsCloseAndDifferentOnesFar() {
+        long original = SimHash.of("Bosch hammer drill " + DESCRIPTION);
+        long relisted = SimHash.of("Bosch hammer drill " + DESCRIPTION + " barely used");
+        long other = SimHash.of("Aluminium ladder Folding ladder, 3 m");
+
+        assertTrue(SimHash.distance(original, relisted) < SimHash.distance(original, other));
+        assertTrue(SimHash.distance(original, other) > SimHashBuckets.MAX_DISTANCE);
+    }
+
+    @Test
+    void onEvent_ShouldDropItemFlaggedAsDuplicate() {
+        Item flagged = Item.builder().id(1L).name("Bosch hammer drill").description(DESCRIPTION)
+                .available(true).owner(User.builder().id(10L).build()).duplicateOf(5L).build();
+        ItemIndexFixtures.givenRow(itemRepository, flagged);
+
+        index.onEvent(OutboxEvent.builder().type(OutboxEventType.ITEM_UPDATED).aggregateId(1L).build());
+
+        assertTrue(index.findOriginal(10L, "Bosch hammer drill", DESCRIPTION).isEmpty());
+    }
+
+    @Test
+    void onEvent_ShouldDropUnavailableItem() {
+        Item unavailable = Item.builder().id(1L).name("Bosch hammer drill").description(DESCRIPTION)
+                .available(false).owner(User.builder().id(10L).build()).build();
+        ItemIndexFixtures.givenRow(itemRepository, unavailable);
+
+        index.onEvent(OutboxEvent.builder().type(OutboxEventType.ITEM_UPDATED).aggregateId(1L).build());
+
+        assertTrue(index.findOriginal(10L, "Bosch hammer drill", DESCRIPTION).isEmpty());
+    }
+
+    @Test
+    void findDuplicates_ShouldPointEveryRelistingAtOldestListing() {
+        Map<Long, Long> duplicates = ItemDeduplicationJob.findDuplicates(List.of(
+                view(7L, "Bosch hammer drill", DESCRIPTION),
+                view(3L, "Bosch hammer drill", DESCRIPTION),
+                view(5L, "Aluminium ladder", "Folding ladder, 3 m"),
+                view(9L, "bosch hammer drill", DESCRIPTION)));
+
+        assertEquals(Map.of(7L, 3L, 9L, 3L), duplicates);
+    }
+
+    private static ItemDuplicateView view(Long id, String name, String description) {
+        return new ItemDuplicateView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 10L;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.item.ItemIndexFixtures.event;
+
+@ExtendWith(MockitoExtension.class)
+class ItemFacetIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @InjectMocks
+    private ItemFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index.index(view(1L, 10L, null, 0));
+        index.index(view(2L, 10L, 5L, 3));
+        index.index(view(3L, 20L, 6L, 1));
+        index.index(view(4L, 20L, null, 12));
+    }
+
+    @Test
+    void matching_ShouldIntersectFacets() {
+        assertArrayEquals(new long[]{1, 2}, ids(new ItemSearchFilter(null, 10L, null, null, null, null)));
+        assertArrayEquals(new long[]{2, 3}, ids(new ItemSearchFilter(null, null, true, null, null, null)));
+        assertArrayEquals(new long[]{4}, ids(new ItemSearchFilter(null, 20L, false, null, null, null)));
+        assertArrayEquals(new long[]{2, 4}, ids(new ItemSearchFilter(null, null, null, 2, null, null)));
+        assertArrayEquals(new long[]{4}, ids(new ItemSearchFilter(null, null, null, 4, null, null)));
+        assertArrayEquals(new long[]{2}, ids(new ItemSearchFilter(null, 10L, true, 3, null, null)));
+        assertTrue(index.matching(new ItemSearchFilter(null, 30L, null, null, null, null)).isEmpty());
+        assertTrue(index.matching(new ItemSearchFilter(null, null, null, 100, null, null)).isEmpty());
+    }
+
+    @Test
+    void matching_MinComments_ShouldAgreeWithPlainComparison() {
+        IntStream.range(0, 200).forEach(i -> index.index(view(100L + i, 30L, null, i * 7 % 37)));
+
+        for (int min = 1; min <= 40; min++) {
+            int threshold = min;
+            long[] expected = IntStream.range(0, 200)
+                    .filter(i -> i * 7 % 37 >= threshold)
+                    .mapToLong(i -> 100L + i)
+                    .toArray();
+            assertArrayEquals(expected, ids(new ItemSearchFilter(null, 30L, null, min, null, null)), "min " + min);
+        }
+    }
+
+    @Test
+    void onEvent_ShouldRereadCommentCountAndDropDeletedItem() {
+        when(commentRepository.findItemIdById(50L)).thenReturn(Optional.of(1L));
+        when(itemRepository.findFacetViewById(1L)).thenReturn(Optional.of(view(1L, 10L, null, 1)));
+        when(itemRepository.findFacetViewById(2L)).thenReturn(Optional.empty());
+
+        OutboxEvent comment = event(OutboxEventType.COMMENT_ADDED, 50L);
+        index.onEvent(comment);
+        index.onEvent(comment);
+        index.onEvent(event(OutboxEventType.ITEM_UPDATED, 2L));
+
+        assertArrayEquals(new long[]{1}, ids(new ItemSearchFilter(null, 10L, null, 1, null, null)));
+        assertArrayEquals(new long[]{3}, ids(new ItemSearchFilter(null, null, true, null, null, null)));
+    }
+
+    @Test
+    void index_ShouldKeepIdsBeyondIntRange() {
+        long bigId = Integer.MAX_VALUE + 10L;
+        index.index(view(bigId, 10L, 7L, 2));
+
+        assertArrayEquals(new long[]{2, bigId}, ids(new ItemSearchFilter(null, 10L, true, 2, null, null)));
+        index.remove(bigId);
+        assertArrayEquals(new long[]{1, 2}, ids(new ItemSearchFilter(null, 10L, null, null, null, null)));
+    }
+
+    private long[] ids(ItemSearchFilter filter) {
+        return index.matching(filter).toArray();
+    }
+
+    private static ItemFacetView view(Long id, Long ownerId, Long requestId, long commentCount) {
+        return new ItemFacetView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Long getRequestId() {
+                return requestId;
+            }
+
+            @Override
+            public Long getCommentCount() {
+                return commentCount;
+            }
+        };
+    }
+}
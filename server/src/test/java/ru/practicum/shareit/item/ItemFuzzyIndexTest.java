@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.item.ItemIndexFixtures.event;
+import static ru.practicum.shareit.item.ItemIndexFixtures.givenRow;
+import static ru.practicum.shareit.item.ItemIndexFixtures.item;
+
+class ItemFuzzyIndexTest {
+
+    private ItemRepository itemRepository;
+    private ItemFuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = Mockito.mock(ItemRepository.class);
+        index = new ItemFuzzyIndex(itemRepository, 5000, 100);
+        index.index(1L, "Cordless drill");
+        index.index(2L, "Drill");
+        index.index(3L, "Hammer drill");
+        index.index(4L, "Ladder");
+    }
+
+    @Test
+    void search_ShouldTolerateTyposAndRankByDistance() {
+        assertEquals(List.of(1L, 2L, 3L), index.search("dril"));
+        assertEquals(List.of(3L), index.search("hamer dril"));
+        assertEquals(List.of(1L), index.search("Cordles  DRILL"));
+        assertEquals(List.of(4L), index.search("ladedr"));
+        assertTrue(index.search("saw").isEmpty());
+        assertTrue(index.search("drill saw").isEmpty());
+        assertTrue(index.search(" ").isEmpty());
+    }
+
+    @Test
+    void search_ShouldNotFuzzShortWords() {
+        index.index(5L, "TV set");
+
+        assertEquals(List.of(5L), index.search("tv"));
+        assertTrue(index.search("tx").isEmpty());
+    }
+
+    @Test
+    void onEvent_ShouldReindexRenamedItemAndDropUnavailableAndDuplicateOnes() {
+        givenRow(itemRepository, item(1L, "Circular saw", true));
+        givenRow(itemRepository, item(2L, "Drill", false));
+        Item relisted = item(3L, "Hammer drill", true);
+        relisted.setDuplicateOf(4L);
+        givenRow(itemRepository, relisted);
+
+        index.onEvent(event(OutboxEventType.ITEM_UPDATED, 1L));
+        index.onEvent(event(OutboxEventType.ITEM_UPDATED, 2L));
+        index.onEvent(event(OutboxEventType.ITEM_UPDATED, 3L));
+
+        assertTrue(index.search("drill").isEmpty());
+        assertEquals(List.of(1L), index.search("circulr"));
+    }
+
+    @Test
+    void bkTree_ShouldFindEveryWordWithinDistance() {
+        BkTree tree = new BkTree();
+        List.of("drill", "grill", "drills", "frill", "hammer", "ladder", "driller").forEach(tree::add);
+
+        assertEquals(Map.of("drill", 1, "grill", 2, "drills", 2, "frill", 2),
+                tree.search("dril", 2, Integer.MAX_VALUE));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+        assertTrue(tree.search("drill", 2, 1).size() <= 1);
+    }
+}
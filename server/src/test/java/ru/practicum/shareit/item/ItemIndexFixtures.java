@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Rows and events for the tests of the in-memory indexes that follow the outbox.
+ */
+public final class ItemIndexFixtures {
+    private ItemIndexFixtures() {
+    }
+
+    public static Item item(Long id, String name, boolean available) {
+        return Item.builder().id(id).name(name).available(available).build();
+    }
+
+    public static OutboxEvent event(OutboxEventType type, Long aggregateId) {
+        return OutboxEvent.builder().type(type).aggregateId(aggregateId).build();
+    }
+
+    /**
+     * Makes the item the current row, as the index re-reads it; the searchable check runs for real.
+     */
+    public static void givenRow(ItemRepository itemRepository, Item item) {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.findSearchableById(item.getId())).thenCallRealMethod();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemRelevanceTest {
+
+    @Test
+    void score_ShouldWeighNameOverDescription() {
+        assertEquals(4, ItemRelevance.score("drill", "Drill", "Cordless DRILL"));
+        assertEquals(0, ItemRelevance.score("saw", "Drill", null));
+    }
+
+    @Test
+    void occurrences_ShouldNotDependOnDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            // в турецкой локали заглавная I становится ı без точки
+            Locale.setDefault(Locale.forLanguageTag("tr"));
+            assertEquals(1, ItemRelevance.occurrences("DRILL KIT", "kit"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
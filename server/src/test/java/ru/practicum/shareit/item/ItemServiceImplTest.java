@@ -6,6 +6,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -16,7 +18,10 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
 import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestAnsweredEvent;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
@@ -25,9 +30,12 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -52,6 +60,27 @@ class ItemServiceImplTest {
     @Mock
     private ItemMapper itemMapper;
 
+    @Mock
+    private ItemBookingStatsService bookingStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ItemSuggestIndex suggestIndex;
+
+    @Mock
+    private ItemFuzzyIndex fuzzyIndex;
+
+    @Mock
+    private ItemFacetIndex facetIndex;
+
+    @Mock
+    private ItemDuplicateIndex duplicateIndex;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -101,13 +130,30 @@ class ItemServiceImplTest {
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(request));
         when(itemMapper.toItem(any(ItemDto.class), any(User.class), any(ItemRequest.class))).thenReturn(item);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
-        when(itemMapper.toItemDto(any(Item.class), anyLong())).thenReturn(itemDto);
+        when(itemMapper.toItemDto(any(Item.class), anyLong(), anyList())).thenReturn(itemDto);
 
         ItemDto result = itemService.addItem(itemDto, owner.getId());
 
         assertNotNull(result);
         assertEquals(itemDto.getName(), result.getName());
         verify(itemRepository).save(any(Item.class));
+        verify(eventPublisher).publishEvent(any(ItemRequestAnsweredEvent.class));
+        verify(outboxService).record(eq(OutboxEventType.ITEM_CREATED), eq(item.getId()), any());
+        verify(eventPublisher).publishEvent(any(ItemCatalogChangedEvent.class));
+    }
+
+    @Test
+    void addItem_NearDuplicateOfOwnListing_ShouldBeFlagged() {
+        when(userService.getUserEntityById(anyLong())).thenReturn(owner);
+        when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(request));
+        when(itemMapper.toItem(any(ItemDto.class), any(User.class), any(ItemRequest.class))).thenReturn(item);
+        when(duplicateIndex.findOriginal(owner.getId(), item.getName(), item.getDescription()))
+                .thenReturn(Optional.of(7L));
+        when(itemRepository.save(any(Item.class))).thenReturn(item);
+
+        itemService.addItem(itemDto, owner.getId());
+
+        assertEquals(7L, item.getDuplicateOf());
     }
 
     @Test
@@ -122,11 +168,12 @@ class ItemServiceImplTest {
 
     @Test
     void updateItem_ShouldUpdateFields() {
-        ItemMapper realMapper = new ItemMapper(bookingRepository);
+        ItemMapper realMapper = new ItemMapper(bookingStatsService);
 
         itemService = new ItemServiceImpl(itemRepository, userService,
                 itemRequestRepository, bookingRepository,
-                commentRepository, realMapper);
+                commentRepository, realMapper, bookingStatsService, eventPublisher, outboxService, suggestIndex,
+                fuzzyIndex, facetIndex, duplicateIndex);
 
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
@@ -143,6 +190,37 @@ class ItemServiceImplTest {
         assertFalse(result.getAvailable());
     }
 
+    @Test
+    void updateItem_EditedIntoRelisting_ShouldBeFlagged() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(duplicateIndex.findOriginal(owner.getId(), item.getId(), "Item", "Description"))
+                .thenReturn(Optional.of(0L));
+        when(itemRepository.save(any(Item.class))).thenReturn(item);
+
+        itemService.updateItem(1L, new ItemDto(), owner.getId());
+
+        assertEquals(0L, item.getDuplicateOf());
+    }
+
+    @Test
+    void updateItem_EditedAwayFromOriginal_ShouldClearFlagsOfItselfAndItsDuplicates() {
+        item.setDuplicateOf(0L);
+        Item formerDuplicate = Item.builder().id(3L).name("Item").description("Description")
+                .owner(owner).duplicateOf(item.getId()).build();
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByDuplicateOf(item.getId())).thenReturn(List.of(formerDuplicate));
+        when(itemRepository.save(any(Item.class))).thenReturn(item);
+
+        ItemDto updateDto = new ItemDto();
+        updateDto.setName("Circular saw");
+        updateDto.setDescription("Corded saw with a spare blade");
+        itemService.updateItem(1L, updateDto, owner.getId());
+
+        assertNull(item.getDuplicateOf());
+        assertNull(formerDuplicate.getDuplicateOf());
+        verify(outboxService).record(eq(OutboxEventType.ITEM_UPDATED), eq(formerDuplicate.getId()), any());
+    }
+
     @Test
     void updateItem_ByNotOwner_ShouldThrowNotFoundException() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
@@ -154,7 +232,7 @@ class ItemServiceImplTest {
     @Test
     void getItemById_ShouldReturnItem() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(itemMapper.toItemDto(any(Item.class), anyLong())).thenReturn(itemDto);
+        when(itemMapper.toItemDto(any(Item.class), anyLong(), anyList())).thenReturn(itemDto);
 
         ItemDto result = itemService.getItemById(1L, owner.getId());
 
@@ -172,31 +250,119 @@ class ItemServiceImplTest {
     @Test
     void getAllItemsByOwner_ShouldReturnItems() {
         when(itemRepository.findByOwnerIdOrderById(anyLong())).thenReturn(List.of(item));
-        when(itemMapper.toItemDto(any(Item.class), anyLong())).thenReturn(itemDto);
+        when(itemMapper.toItemDto(any(Item.class), anyLong(), anyList())).thenReturn(itemDto);
 
         List<ItemDto> result = itemService.getAllItemsByOwner(owner.getId());
 
         assertEquals(1, result.size());
         assertEquals(itemDto.getName(), result.get(0).getName());
+        verify(commentRepository).findByItemIdInOrderById(List.of(item.getId()));
     }
 
     @Test
     void searchItems_ShouldReturnAvailableItems() {
-        when(itemRepository.searchAvailableItems(anyString())).thenReturn(List.of(item));
-        when(itemMapper.toItemDto(any(Item.class), any())).thenReturn(itemDto);
+        when(itemRepository.streamSearchViews("item", true)).thenReturn(Stream.of(view(1L, "Item", "Description")));
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(item));
+        when(itemMapper.toItemDto(any(Item.class), any(), anyList())).thenReturn(itemDto);
 
-        List<ItemDto> result = itemService.searchItems("item");
+        List<ItemDto> result = itemService.searchItems("Item", false, ItemSearchFilter.NONE, 0, 10);
 
         assertEquals(1, result.size());
         assertEquals(itemDto.getName(), result.get(0).getName());
     }
 
+    @Test
+    void searchItems_ShouldRankByRelevanceAndMapOnlyRequestedPage() {
+        Item best = Item.builder().id(5L).name("Item item").available(true).build();
+        when(itemRepository.streamSearchViews("item", true)).thenReturn(Stream.of(
+                view(1L, "Item", "Description"),
+                view(4L, "Thing", "An item"),
+                view(5L, "Item item", null),
+                view(6L, "Item", "Another thing")));
+        when(itemRepository.findAllById(List.of(5L, 1L))).thenReturn(List.of(item, best));
+        when(itemMapper.toItemDto(any(Item.class), any(), anyList()))
+                .thenAnswer(invocation -> ItemDto.builder().id(invocation.<Item>getArgument(0).getId()).build());
+
+        List<ItemDto> result = itemService.searchItems("item", false, ItemSearchFilter.NONE, 0, 2);
+
+        assertEquals(List.of(5L, 1L), result.stream().map(ItemDto::getId).toList());
+        verify(itemMapper, times(2)).toItemDto(any(Item.class), any(), anyList());
+    }
+
+    @Test
+    void searchItems_WithInvalidPaging_ShouldThrowValidationExceptionWithoutQuerying() {
+        assertThrows(ValidationException.class,
+                () -> itemService.searchItems("item", false, ItemSearchFilter.NONE, 0, 0));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchItems("item", false, ItemSearchFilter.NONE, -1, 10));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchItems("item", false, ItemSearchFilter.NONE, 2_000_000_000, 10));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchItems("item", false, ItemSearchFilter.NONE, Integer.MAX_VALUE, 10));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void searchItems_WithFacets_ShouldSkipCandidatesOutsideFacetBitmap() {
+        ItemSearchFilter filter = new ItemSearchFilter(null, 1L, null, null, null, null);
+        when(facetIndex.matching(filter)).thenReturn(Roaring64Bitmap.bitmapOf(1L));
+        when(itemRepository.streamSearchViews("item", true)).thenReturn(Stream.of(
+                view(4L, "Item item", null),
+                view(1L, "Item", "Description")));
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(item));
+        when(itemMapper.toItemDto(any(Item.class), any(), anyList())).thenReturn(itemDto);
+
+        List<ItemDto> result = itemService.searchItems("item", false, filter, 0, 10);
+
+        assertEquals(1, result.size());
+        verify(itemRepository).findAllById(List.of(1L));
+    }
+
+    @Test
+    void searchItems_WithFacetsMatchingNothing_ShouldNotQueryDatabase() {
+        ItemSearchFilter filter = new ItemSearchFilter(null, null, null, 3, null, null);
+        when(facetIndex.matching(filter)).thenReturn(new Roaring64Bitmap());
+
+        assertTrue(itemService.searchItems("item", false, filter, 0, 10).isEmpty());
+        verify(itemRepository, never()).streamSearchViews(anyString(), anyBoolean());
+    }
+
+    @Test
+    void searchItems_Fuzzy_ShouldKeepIndexRankingAndSkipUnavailableItems() {
+        Item close = Item.builder().id(2L).name("Drill").available(true).build();
+        Item gone = Item.builder().id(3L).name("Drills").available(false).build();
+        when(fuzzyIndex.search("dril")).thenReturn(List.of(2L, 3L, 1L));
+        when(itemRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(List.of(item, gone, close));
+        when(itemMapper.toItemDto(any(Item.class), any(), anyList()))
+                .thenAnswer(invocation -> ItemDto.builder().id(invocation.<Item>getArgument(0).getId()).build());
+
+        List<ItemDto> result = itemService.searchItems("dril", true, ItemSearchFilter.NONE, 0, 10);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(ItemDto::getId).toList());
+        verify(itemRepository, never()).streamSearchViews(anyString(), anyBoolean());
+    }
+
+    @Test
+    void searchItems_FuzzyWithDateRange_ShouldDropBookedItemsInOneQuery() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        when(fuzzyIndex.search("item")).thenReturn(List.of(3L, 1L));
+        when(bookingRepository.findItemIdsBookedBetween(List.of(3L, 1L), start, end)).thenReturn(Set.of(3L));
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(item));
+        when(itemMapper.toItemDto(any(Item.class), any(), anyList())).thenReturn(itemDto);
+
+        List<ItemDto> result = itemService.searchItems("item", true,
+                new ItemSearchFilter(null, null, null, null, start, end), 0, 10);
+
+        assertEquals(1, result.size());
+    }
+
     @Test
     void searchItems_WithEmptyText_ShouldReturnEmptyList() {
-        List<ItemDto> result = itemService.searchItems("");
+        List<ItemDto> result = itemService.searchItems("", false, ItemSearchFilter.NONE, 0, 10);
 
         assertTrue(result.isEmpty());
-        verify(itemRepository, never()).searchAvailableItems(anyString());
+        verify(itemRepository, never()).streamSearchViews(anyString(), anyBoolean());
     }
 
     @Test
@@ -261,4 +427,23 @@ class ItemServiceImplTest {
         assertThrows(NotFoundException.class,
                 () -> itemService.getItemEntityById(999L));
     }
+
+    private static ItemSearchView view(Long id, String name, String description) {
+        return new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
 }
@@ -1,18 +1,31 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingStats;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +45,27 @@ class ItemServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingStatsService bookingStatsService;
+
+    @Autowired
+    private ItemBookingStatsRepository bookingStatsRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemDeduplicationJob deduplicationJob;
+
     @BeforeEach
     void setUp() {
         itemRepository.deleteAll();
@@ -88,6 +122,50 @@ class ItemServiceIntegrationTest {
         assertFalse(dbItem.getAvailable());
     }
 
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void secondLevelCache_shouldServeReadsAndFollowCommittedWrites() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        try {
+            ItemDto itemDto = new ItemDto();
+            itemDto.setName("Drill");
+            itemDto.setDescription("Powerful drill");
+            itemDto.setAvailable(true);
+            Long itemId = itemService.addItem(itemDto, owner.getId()).getId();
+
+            // IDENTITY inserts are not put into the cache, the first read does that
+            itemService.getItemById(itemId, owner.getId());
+            assertTrue(entityManagerFactory.getCache().contains(Item.class, itemId));
+
+            CacheRegionStatistics items = regionStatistics("items");
+            // the outbox relay may hit the same rows meanwhile; an unchanged miss count shows the read was cached
+            long itemHits = items.getHitCount();
+            long itemMisses = items.getMissCount();
+
+            assertEquals("Drill", itemService.getItemById(itemId, owner.getId()).getName());
+            assertTrue(items.getHitCount() > itemHits);
+            assertEquals(itemMisses, items.getMissCount());
+
+            ItemDto update = new ItemDto();
+            update.setName("Cordless drill");
+            update.setAvailable(false);
+            itemService.updateItem(itemId, update, owner.getId());
+            itemHits = items.getHitCount();
+            itemMisses = items.getMissCount();
+
+            ItemDto reloaded = itemService.getItemById(itemId, owner.getId());
+            assertEquals("Cordless drill", reloaded.getName());
+            assertFalse(reloaded.getAvailable());
+            assertTrue(items.getHitCount() > itemHits);
+            assertEquals(itemMisses, items.getMissCount());
+        } finally {
+            outboxRepository.deleteAll();
+            bookingStatsRepository.deleteAll();
+            itemRepository.deleteAll();
+            userRepository.deleteAll();
+        }
+    }
+
     @Test
     void getItemById_shouldReturnItemFromDatabase() {
         User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
@@ -122,9 +200,9 @@ class ItemServiceIntegrationTest {
         itemRepository.save(Item.builder().name("Hammer").description("Heavy hammer").available(true).owner(owner).build());
         itemRepository.save(Item.builder().name("Broken Drill").description("Doesn't work").available(false).owner(owner).build());
 
-        List<ItemDto> drillResults = itemService.searchItems("drill");
-        List<ItemDto> hammerResults = itemService.searchItems("hammer");
-        List<ItemDto> emptyResults = itemService.searchItems("");
+        List<ItemDto> drillResults = itemService.searchItems("drill", false, ItemSearchFilter.NONE, 0, 10);
+        List<ItemDto> hammerResults = itemService.searchItems("hammer", false, ItemSearchFilter.NONE, 0, 10);
+        List<ItemDto> emptyResults = itemService.searchItems("", false, ItemSearchFilter.NONE, 0, 10);
 
         assertEquals(1, drillResults.size());
         assertEquals("Drill", drillResults.get(0).getName());
@@ -135,6 +213,129 @@ class ItemServiceIntegrationTest {
         assertTrue(emptyResults.isEmpty());
     }
 
+    @Test
+    void searchItems_withDateRange_shouldSkipItemsWithOverlappingApprovedBookings() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@email.com").build());
+        Item approved = itemRepository.save(Item.builder().name("Drill A").description("Drill")
+                .available(true).owner(owner).build());
+        Item waiting = itemRepository.save(Item.builder().name("Drill B").description("Drill")
+                .available(true).owner(owner).build());
+        Item later = itemRepository.save(Item.builder().name("Drill C").description("Drill")
+                .available(true).owner(owner).build());
+        LocalDateTime friday = LocalDateTime.now().plusDays(3).withNano(0);
+        LocalDateTime sunday = friday.plusDays(2);
+        bookingRepository.save(Booking.builder().start(friday.plusDays(1)).end(sunday.plusDays(1))
+                .item(approved).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().start(friday).end(sunday)
+                .item(waiting).booker(booker).status(BookingStatus.WAITING).build());
+        bookingRepository.save(Booking.builder().start(sunday).end(sunday.plusDays(1))
+                .item(later).booker(booker).status(BookingStatus.APPROVED).build());
+
+        List<ItemDto> free = itemService.searchItems("drill", false,
+                new ItemSearchFilter(null, null, null, null, friday, sunday), 0, 10);
+
+        assertEquals(List.of(waiting.getId(), later.getId()), free.stream().map(ItemDto::getId).toList());
+        assertThrows(ValidationException.class, () -> itemService.searchItems("drill", false,
+                new ItemSearchFilter(null, null, null, null, sunday, friday), 0, 10));
+    }
+
+    @Test
+    void deduplicate_shouldFlagRelistingsAndHideThemFromSearch() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        User other = userRepository.save(User.builder().name("Other").email("other@email.com").build());
+        String description = "Cordless hammer drill, two batteries, charger and a case with bits";
+        Item original = itemRepository.save(Item.builder().name("Bosch drill").description(description)
+                .available(true).owner(owner).build());
+        Item relisted = itemRepository.save(Item.builder().name("Bosch drill!").description(description)
+                .available(true).owner(owner).build());
+        Item sameTextOtherOwner = itemRepository.save(Item.builder().name("Bosch drill").description(description)
+                .available(true).owner(other).build());
+
+        assertEquals(1, deduplicationJob.deduplicate());
+
+        assertEquals(original.getId(), itemRepository.findById(relisted.getId()).orElseThrow().getDuplicateOf());
+        assertNull(itemRepository.findById(sameTextOtherOwner.getId()).orElseThrow().getDuplicateOf());
+        assertEquals(List.of(original.getId(), sameTextOtherOwner.getId()),
+                itemService.searchItems("bosch", false, ItemSearchFilter.NONE, 0, 10).stream()
+                        .map(ItemDto::getId).toList());
+        assertEquals(0, deduplicationJob.deduplicate());
+    }
+
+    @Test
+    void updateItem_editedRelisting_shouldBecomeSearchableAgain() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        String description = "Cordless hammer drill, two batteries, charger and a case with bits";
+        Item original = itemRepository.save(Item.builder().name("Bosch drill").description(description)
+                .available(true).owner(owner).build());
+        Item relisted = itemRepository.save(Item.builder().name("Bosch drill").description(description)
+                .available(true).owner(owner).duplicateOf(original.getId()).build());
+
+        ItemDto update = new ItemDto();
+        update.setName("Makita drill");
+        update.setDescription("Corded drill with a side handle");
+        ItemDto result = itemService.updateItem(relisted.getId(), update, owner.getId());
+
+        assertNull(result.getDuplicateOf());
+        assertEquals(List.of(relisted.getId()),
+                itemService.searchItems("makita", false, ItemSearchFilter.NONE, 0, 10).stream()
+                        .map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void deduplicate_withUnavailableOriginal_shouldKeepRelistingSearchable() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        String description = "Cordless hammer drill, two batteries, charger and a case with bits";
+        itemRepository.save(Item.builder().name("Bosch drill").description(description)
+                .available(false).owner(owner).build());
+        Item relisted = itemRepository.save(Item.builder().name("Bosch drill!").description(description)
+                .available(true).owner(owner).build());
+
+        assertEquals(0, deduplicationJob.deduplicate());
+
+        assertNull(itemRepository.findById(relisted.getId()).orElseThrow().getDuplicateOf());
+        assertEquals(List.of(relisted.getId()),
+                itemService.searchItems("bosch", false, ItemSearchFilter.NONE, 0, 10).stream()
+                        .map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void updateItem_originalMadeUnavailable_shouldUnflagRelisting() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        String description = "Cordless hammer drill, two batteries, charger and a case with bits";
+        Item original = itemRepository.save(Item.builder().name("Bosch drill").description(description)
+                .available(true).owner(owner).build());
+        Item relisted = itemRepository.save(Item.builder().name("Bosch drill").description(description)
+                .available(true).owner(owner).duplicateOf(original.getId()).build());
+
+        ItemDto update = new ItemDto();
+        update.setAvailable(false);
+        itemService.updateItem(original.getId(), update, owner.getId());
+
+        assertNull(itemRepository.findById(relisted.getId()).orElseThrow().getDuplicateOf());
+        assertEquals(List.of(relisted.getId()),
+                itemService.searchItems("bosch", false, ItemSearchFilter.NONE, 0, 10).stream()
+                        .map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void searchItems_shouldRankNameMatchesFirstAndPage() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        Item inDescription = itemRepository.save(Item.builder().name("Toolbox")
+                .description("Fits a drill").available(true).owner(owner).build());
+        Item inName = itemRepository.save(Item.builder().name("Drill")
+                .description("Cordless").available(true).owner(owner).build());
+        Item inBoth = itemRepository.save(Item.builder().name("Drill")
+                .description("Drill with a spare drill bit").available(true).owner(owner).build());
+
+        List<ItemDto> firstPage = itemService.searchItems("DRILL", false, ItemSearchFilter.NONE, 0, 2);
+        List<ItemDto> secondPage = itemService.searchItems("drill", false, ItemSearchFilter.NONE, 2, 2);
+
+        assertEquals(List.of(inBoth.getId(), inName.getId()), firstPage.stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(inDescription.getId()), secondPage.stream().map(ItemDto::getId).toList());
+        assertTrue(itemService.searchItems("drill", false, ItemSearchFilter.NONE, 4, 2).isEmpty());
+    }
+
     @Test
     void updateItem_withWrongOwner_shouldThrowException() {
         User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
@@ -153,4 +354,105 @@ class ItemServiceIntegrationTest {
         assertThrows(NotFoundException.class, () ->
                 itemService.getItemById(9999L, 1L));
     }
+
+    @Test
+    void getItemById_shouldServeBookingInfoFromStats() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@email.com").build());
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Test Item");
+        itemDto.setDescription("Test Description");
+        itemDto.setAvailable(true);
+        ItemDto savedItem = itemService.addItem(itemDto, owner.getId());
+
+        BookingResponseDto booking = bookingService.createBooking(BookingRequestDto.builder()
+                .itemId(savedItem.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), booker.getId());
+        bookingService.approveBooking(booking.getId(), owner.getId(), true);
+
+        ItemBookingStats stats = bookingStatsRepository.findById(savedItem.getId()).orElseThrow();
+        assertEquals(1, stats.getBookingCount());
+        assertEquals(1, stats.getApprovedCount());
+        assertEquals(booking.getId(), stats.getNextBookingId());
+        assertNotNull(stats.getLastBookedAt());
+
+        ItemDto ownerView = itemService.getItemById(savedItem.getId(), owner.getId());
+        assertEquals(booking.getId(), ownerView.getNextBooking().getId());
+        assertEquals(booker.getId(), ownerView.getNextBooking().getBookerId());
+        assertNull(ownerView.getLastBooking());
+
+        ItemDto bookerView = itemService.getItemById(savedItem.getId(), booker.getId());
+        assertNull(bookerView.getNextBooking());
+    }
+
+    @Test
+    void getItemETag_shouldChangeWithItemAndOwnerBookingInfo() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@email.com").build());
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Test Item");
+        itemDto.setDescription("Test Description");
+        itemDto.setAvailable(true);
+        ItemDto savedItem = itemService.addItem(itemDto, owner.getId());
+
+        String ownerTag = itemService.getItemETag(savedItem.getId(), owner.getId());
+        String bookerTag = itemService.getItemETag(savedItem.getId(), booker.getId());
+        assertEquals(ownerTag, itemService.getItemETag(savedItem.getId(), owner.getId()));
+        assertNotEquals(ownerTag, bookerTag);
+
+        BookingResponseDto booking = bookingService.createBooking(BookingRequestDto.builder()
+                .itemId(savedItem.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), booker.getId());
+        bookingService.approveBooking(booking.getId(), owner.getId(), true);
+
+        String approvedTag = itemService.getItemETag(savedItem.getId(), owner.getId());
+        assertNotEquals(ownerTag, approvedTag);
+        assertEquals(bookerTag, itemService.getItemETag(savedItem.getId(), booker.getId()));
+
+        ItemDto updateDto = new ItemDto();
+        updateDto.setName("Renamed");
+        itemService.updateItem(savedItem.getId(), updateDto, owner.getId());
+
+        assertNotEquals(approvedTag, itemService.getItemETag(savedItem.getId(), owner.getId()));
+        assertNotEquals(bookerTag, itemService.getItemETag(savedItem.getId(), booker.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.getItemETag(999L, owner.getId()));
+    }
+
+    @Test
+    void rollForward_shouldMoveStartedBookingToLast() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@email.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@email.com").build());
+        Item item = itemRepository.save(createTestItem(owner));
+        Booking started = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusHours(1))
+                .end(LocalDateTime.now().plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        bookingStatsRepository.save(ItemBookingStats.builder()
+                .itemId(item.getId())
+                .nextBookingId(started.getId())
+                .nextBookerId(booker.getId())
+                .nextBookingStart(started.getStart())
+                .bookingCount(1)
+                .approvedCount(1)
+                .build());
+
+        bookingStatsService.rollForward();
+
+        ItemBookingStats stats = bookingStatsRepository.findById(item.getId()).orElseThrow();
+        assertEquals(started.getId(), stats.getLastBookingId());
+        assertNull(stats.getNextBookingId());
+        assertNull(stats.getNextBookingStart());
+        assertEquals(started.getId(), itemService.getItemById(item.getId(), owner.getId()).getLastBooking().getId());
+    }
+
+    private CacheRegionStatistics regionStatistics(String region) {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getDomainDataRegionStatistics(region);
+    }
 }
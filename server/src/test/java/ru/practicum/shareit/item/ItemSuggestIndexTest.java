@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.item.ItemIndexFixtures.event;
+import static ru.practicum.shareit.item.ItemIndexFixtures.givenRow;
+import static ru.practicum.shareit.item.ItemIndexFixtures.item;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSuggestIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @InjectMocks
+    private ItemSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index.index(1L, "Cordless drill", 3);
+        index.index(2L, "Drill", 7);
+        index.index(3L, "Hammer drill, heavy-duty", 7);
+        index.index(4L, "Ladder", 10);
+    }
+
+    @Test
+    void suggest_ShouldMatchWordPrefixesRankedByPopularity() {
+        assertEquals(List.of(2L, 3L, 1L), ids(index.suggest("DRI", 10)));
+        assertEquals(List.of(2L, 3L), ids(index.suggest("dri", 2)));
+        assertEquals(List.of(3L), ids(index.suggest("heavy du", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("cordless dr", 10)));
+        assertTrue(index.suggest("  ", 10).isEmpty());
+        assertTrue(index.suggest("saw", 10).isEmpty());
+    }
+
+    @Test
+    void onEvent_ShouldReindexRenamedItemAndDropUnavailableOne() {
+        givenRow(itemRepository, item(1L, "Circular saw", true));
+        givenRow(itemRepository, item(2L, "Drill", false));
+
+        index.onEvent(event(OutboxEventType.ITEM_UPDATED, 1L));
+        index.onEvent(event(OutboxEventType.ITEM_UPDATED, 2L));
+
+        assertEquals(List.of(3L), ids(index.suggest("dri", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("saw", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void onEvent_BookingCreated_ShouldRaisePopularity() {
+        OutboxEvent booking = event(OutboxEventType.BOOKING_CREATED, 100L);
+        when(outboxService.readPayload(booking, BookingResponseDto.class)).thenReturn(BookingResponseDto.builder()
+                .id(100L)
+                .item(new BookingResponseDto.ItemDto(1L, "Cordless drill"))
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            index.onEvent(booking);
+        }
+
+        assertEquals(List.of(1L, 2L, 3L), ids(index.suggest("drill", 10)));
+    }
+
+    private static List<Long> ids(List<ItemSuggestionDto> suggestions) {
+        return suggestions.stream().map(ItemSuggestionDto::getId).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.outbox;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OutboxRelayIntegrationTest {
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    private User requestor;
+
+    @BeforeEach
+    void setUp() {
+        subscriber.events.clear();
+        requestor = userRepository.save(User.builder().name("Requestor").email("requestor@email.com").build());
+    }
+
+    @Test
+    void createRequest_shouldRecordOutboxEventInSameTransaction() {
+        ItemRequestDto request = itemRequestService.createRequest(
+                ItemRequestDto.builder().description("Need a drill").build(), requestor.getId());
+
+        List<OutboxEvent> pending =
+                outboxRepository.findByPublishedAtIsNullAndParkedAtIsNullOrderById(PageRequest.of(0, 10));
+
+        assertEquals(1, pending.size());
+        assertEquals(OutboxEventType.REQUEST_CREATED, pending.get(0).getType());
+        assertEquals(request.getId(), pending.get(0).getAggregateId());
+    }
+
+    @Test
+    void relayBatch_shouldDeliverToSubscribersAndMarkPublished() {
+        ItemRequestDto request = itemRequestService.createRequest(
+                ItemRequestDto.builder().description("Need a drill").build(), requestor.getId());
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        assertEquals(1, subscriber.events.size());
+        ItemRequestDto payload = outboxService.readPayload(subscriber.events.get(0), ItemRequestDto.class);
+        assertEquals(request.getId(), payload.getId());
+        assertEquals("Need a drill", payload.getDescription());
+        assertTrue(outboxRepository.findByPublishedAtIsNullAndParkedAtIsNullOrderById(PageRequest.of(0, 10))
+                .isEmpty());
+        assertEquals(0, outboxRelay.relayBatch());
+    }
+
+    @Test
+    void purge_shouldKeepParkedEventsAndDropOldPublishedOnes() {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(7);
+        OutboxEvent published = outboxRepository.save(event(longAgo));
+        OutboxEvent parked = outboxRepository.save(event(longAgo));
+        outboxRepository.markPublished(List.of(published.getId()), longAgo);
+        outboxRepository.markParked(parked.getId(), longAgo);
+
+        outboxRelay.purge();
+
+        assertFalse(outboxRepository.existsById(published.getId()));
+        assertEquals(List.of(parked.getId()), outboxRepository.findByParkedAtIsNotNullOrderById().stream()
+                .map(OutboxEvent::getId)
+                .toList());
+        assertTrue(outboxRepository.findByPublishedAtIsNullAndParkedAtIsNullOrderById(PageRequest.of(0, 10))
+                .isEmpty());
+        assertEquals(0, outboxRelay.relayBatch());
+        assertTrue(subscriber.events.isEmpty());
+    }
+
+    private static OutboxEvent event(LocalDateTime createdAt) {
+        return OutboxEvent.builder()
+                .type(OutboxEventType.REQUEST_CREATED)
+                .aggregateId(1L)
+                .payload("{}")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @TestConfiguration
+    static class SubscriberConfig {
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements OutboxSubscriber {
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        @Override
+        public boolean supports(OutboxEventType type) {
+            return type == OutboxEventType.REQUEST_CREATED;
+        }
+
+        @Override
+        public void onEvent(OutboxEvent event) {
+            events.add(event);
+        }
+    }
+}
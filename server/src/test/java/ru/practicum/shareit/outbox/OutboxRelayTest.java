@@ -0,0 +1,99 @@
+package ru.practicum.shareit.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private ObjectProvider<OutboxSubscriber> subscribers;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OutboxSubscriber subscriber;
+
+    private OutboxRelay relay;
+    private OutboxEvent first;
+    private OutboxEvent second;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxRepository, subscribers, transactionManager, 3, 24);
+        first = event(1L, 0);
+        second = event(2L, 0);
+        when(subscribers.orderedStream()).thenAnswer(invocation -> Stream.of(subscriber));
+        when(subscriber.supports(any())).thenReturn(true);
+    }
+
+    @Test
+    void relayBatch_ShouldMarkAllDeliveredEventsPublished() {
+        when(outboxRepository.findByPublishedAtIsNullAndParkedAtIsNullOrderById(any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+
+        assertEquals(2, relay.relayBatch());
+
+        verify(subscriber).onEvent(first);
+        verify(subscriber).onEvent(second);
+        verify(outboxRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void relayBatch_WhenSubscriberFails_ShouldStopAndRetryLater() {
+        when(outboxRepository.findByPublishedAtIsNullAndParkedAtIsNullOrderById(any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        doThrow(new IllegalStateException("index unavailable")).when(subscriber).onEvent(first);
+
+        assertEquals(0, relay.relayBatch());
+
+        verify(outboxRepository).recordFailure(1L, 1, "index unavailable");
+        verify(subscriber, never()).onEvent(second);
+        verify(outboxRepository, never()).markPublished(any(), any());
+        verify(outboxRepository, never()).markParked(any(), any());
+    }
+
+    @Test
+    void relayBatch_WhenAttemptsExhausted_ShouldParkEventAndContinue() {
+        OutboxEvent poisoned = event(1L, 2);
+        when(outboxRepository.findByPublishedAtIsNullAndParkedAtIsNullOrderById(any(Pageable.class)))
+                .thenReturn(List.of(poisoned, second));
+        doThrow(new IllegalStateException("bad payload")).when(subscriber).onEvent(poisoned);
+
+        assertEquals(2, relay.relayBatch());
+
+        verify(outboxRepository).recordFailure(1L, 3, "bad payload");
+        verify(outboxRepository).markParked(eq(1L), any(LocalDateTime.class));
+        verify(subscriber).onEvent(second);
+        verify(outboxRepository).markPublished(eq(List.of(2L)), any(LocalDateTime.class));
+    }
+
+    private static OutboxEvent event(Long id, int attempts) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEventType.ITEM_CREATED)
+                .aggregateId(id)
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .attempts(attempts)
+                .build();
+    }
+}
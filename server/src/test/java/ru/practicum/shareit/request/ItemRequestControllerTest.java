@@ -11,6 +11,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 
@@ -25,6 +27,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemRequestController.class)
@@ -74,9 +77,12 @@ public class ItemRequestControllerTest {
 
     @Test
     void getAllRequestsForUser_ShouldReturnRequestsList() throws Exception {
-        ItemRequestDto request1 = new ItemRequestDto(1L, "Need a drill", userId, created);
-        ItemRequestDto request2 = new ItemRequestDto(2L, "Need a hammer", userId, created.plusHours(1));
-        List<ItemRequestDto> requests = List.of(request1, request2);
+        ItemDto item = ItemDto.builder().id(10L).name("Drill").requestId(1L).build();
+        ItemRequestResponseDto request1 = new ItemRequestResponseDto(1L, "Need a drill", userId, created, List.of(item),
+                List.of());
+        ItemRequestResponseDto request2 = new ItemRequestResponseDto(2L, "Need a hammer", userId,
+                created.plusHours(1), List.of(), List.of());
+        List<ItemRequestResponseDto> requests = List.of(request1, request2);
 
         when(requestService.getAllRequestsForUser(userId)).thenReturn(requests);
 
@@ -85,7 +91,9 @@ public class ItemRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[1].id").value(2L));
+                .andExpect(jsonPath("$[0].items[0].id").value(10L))
+                .andExpect(jsonPath("$[1].id").value(2L))
+                .andExpect(jsonPath("$[1].items", hasSize(0)));
 
         verify(requestService).getAllRequestsForUser(userId);
     }
@@ -110,6 +118,18 @@ public class ItemRequestControllerTest {
         verify(requestService).getAllRequests(eq(userId), eq(from), eq(size));
     }
 
+    @Test
+    void subscribeToAnswers_ShouldOpenEventStream() throws Exception {
+        when(requestService.subscribeToAnswers(userId)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/requests/subscribe")
+                        .header(userIdHeader, userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(requestService).subscribeToAnswers(userId);
+    }
+
     @Test
     void getRequestById_ShouldReturnRequest() throws Exception {
         Long requestId = 1L;
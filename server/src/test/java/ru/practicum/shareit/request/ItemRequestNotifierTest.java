@@ -0,0 +1,48 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemRequestNotifierTest {
+
+    private ItemRequestNotifier notifier;
+    private ItemRequestAnsweredEvent event;
+
+    @BeforeEach
+    void setUp() {
+        notifier = new ItemRequestNotifier(60_000);
+        event = new ItemRequestAnsweredEvent(1L, 1L, ItemDto.builder().id(10L).name("Drill").requestId(1L).build());
+    }
+
+    @Test
+    void subscribe_ShouldRegisterEmitterPerUser() {
+        notifier.subscribe(1L);
+        notifier.subscribe(1L);
+        notifier.subscribe(2L);
+
+        assertEquals(2, notifier.subscriberCount(1L));
+        assertEquals(1, notifier.subscriberCount(2L));
+    }
+
+    @Test
+    void onItemAnswered_ShouldDropCompletedSubscriptions() {
+        SseEmitter closed = notifier.subscribe(1L);
+        notifier.subscribe(1L);
+        closed.complete();
+
+        notifier.onItemAnswered(event);
+
+        assertEquals(1, notifier.subscriberCount(1L));
+    }
+
+    @Test
+    void onItemAnswered_WithoutSubscribers_ShouldDoNothing() {
+        assertDoesNotThrow(() -> notifier.onItemAnswered(event));
+        assertEquals(0, notifier.subscriberCount(1L));
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.item.ItemIndexFixtures.event;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestPercolatorTest {
+
+    @Mock
+    private ItemRequestRepository requestRepository;
+
+    @Mock
+    private ItemRequestMatchRepository matchRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @InjectMocks
+    private ItemRequestPercolator percolator;
+
+    @BeforeEach
+    void setUp() {
+        percolator.register(1L, 100L, "Need a cordless drill for the weekend");
+        percolator.register(2L, 100L, "Looking for a ladder");
+        percolator.register(3L, 200L, "Нужна дрель");
+        percolator.register(4L, 300L, "Need some drill bits, hammer drill preferred");
+    }
+
+    @Test
+    void percolate_ShouldMatchRequestsCoveringHalfOfTheirTerms() {
+        // cordless, drill, weekend: 2 of 3 needed
+        assertEquals(Set.of(1L), percolator.percolate(9L, "Cordless drill", "18V, two batteries"));
+        // drill, bits, hammer, preferred: 2 of 4 needed
+        assertEquals(Set.of(4L), percolator.percolate(9L, "Hammer drill", null));
+        assertEquals(Set.of(2L), percolator.percolate(9L, "Ladder", "Aluminium, 3 m"));
+        assertEquals(Set.of(3L), percolator.percolate(9L, "Дрель", "Ударная"));
+        assertTrue(percolator.percolate(9L, "Drill", "The best").isEmpty());
+    }
+
+    @Test
+    void percolate_ShouldSkipOwnersOwnRequests() {
+        assertTrue(percolator.percolate(100L, "Ladder", null).isEmpty());
+    }
+
+    @Test
+    void onEvent_RequestCreated_ShouldRegisterStandingQuery() {
+        OutboxEvent event = event(OutboxEventType.REQUEST_CREATED, 5L);
+        when(outboxService.readPayload(event, ItemRequestDto.class)).thenReturn(
+                new ItemRequestDto(5L, "Circular saw", 400L, LocalDateTime.now()));
+
+        percolator.onEvent(event);
+        percolator.onEvent(event);
+
+        assertEquals(5, percolator.size());
+        assertEquals(Set.of(5L), percolator.percolate(9L, "Circular saw", null));
+    }
+
+    @Test
+    void onEvent_ItemCreated_ShouldCloseAnsweredRequestAndStoreOnlyNewMatches() {
+        ItemRequest answered = new ItemRequest();
+        answered.setId(2L);
+        Item item = Item.builder().id(50L).name("Hammer drill").description("Cordless")
+                .available(true).owner(User.builder().id(9L).build()).request(answered).build();
+        when(itemRepository.findById(50L)).thenReturn(Optional.of(item));
+        ItemRequestMatch stale = ItemRequestMatch.builder().id(7L).requestId(3L).itemId(50L).build();
+        ItemRequestMatch kept = ItemRequestMatch.builder().id(8L).requestId(4L).itemId(50L).build();
+        when(matchRepository.findByItemId(50L)).thenReturn(List.of(stale, kept));
+        when(requestRepository.findExistingIds(Set.of(1L, 4L))).thenReturn(Set.of(1L, 4L));
+
+        percolator.onEvent(event(OutboxEventType.ITEM_CREATED, 50L));
+
+        assertEquals(3, percolator.size());
+        verify(matchRepository).deleteAll(List.of(stale));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ItemRequestMatch>> saved = ArgumentCaptor.forClass(List.class);
+        verify(matchRepository).saveAll(saved.capture());
+        assertEquals(List.of(1L), saved.getValue().stream().map(ItemRequestMatch::getRequestId).toList());
+    }
+
+    @Test
+    void onEvent_RequestDeleted_ShouldDropStandingQuery() {
+        percolator.onEvent(event(OutboxEventType.REQUEST_DELETED, 2L));
+        percolator.onEvent(event(OutboxEventType.REQUEST_DELETED, 2L));
+
+        assertEquals(3, percolator.size());
+        assertTrue(percolator.percolate(9L, "Ladder", "Aluminium, 3 m").isEmpty());
+    }
+
+    @Test
+    void onEvent_ItemCreated_ShouldSkipAndUnregisterRequestsDeletedMeanwhile() {
+        Item item = Item.builder().id(51L).name("Ladder").description("Aluminium")
+                .available(true).owner(User.builder().id(9L).build()).build();
+        when(itemRepository.findById(51L)).thenReturn(Optional.of(item));
+        when(requestRepository.findExistingIds(Set.of(2L))).thenReturn(Set.of());
+
+        percolator.onEvent(event(OutboxEventType.ITEM_CREATED, 51L));
+
+        assertEquals(3, percolator.size());
+        verify(matchRepository).saveAll(List.of());
+    }
+}
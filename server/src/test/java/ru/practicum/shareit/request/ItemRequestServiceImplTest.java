@@ -10,12 +10,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.user.UserService;
@@ -29,6 +31,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,6 +50,15 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemMapper itemMapper;
 
+    @Mock
+    private ItemRequestNotifier notifier;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ItemRequestMatchRepository matchRepository;
+
     @InjectMocks
     private ItemRequestServiceImpl requestService;
 
@@ -120,11 +132,25 @@ class ItemRequestServiceImplTest {
         when(userService.getUserEntityById(anyLong())).thenReturn(requestor);
         when(requestRepository.findByRequestorIdOrderByCreatedDesc(anyLong()))
                 .thenReturn(List.of(request));
+        when(itemRepository.findByRequestIdIn(List.of(request.getId()))).thenReturn(List.of(item));
+        when(itemMapper.toSimpleItemDto(item)).thenReturn(itemDto);
 
-        List<ItemRequestDto> result = requestService.getAllRequestsForUser(requestor.getId());
+        List<ItemRequestResponseDto> result = requestService.getAllRequestsForUser(requestor.getId());
 
         assertEquals(1, result.size());
         assertEquals(request.getDescription(), result.get(0).getDescription());
+        assertEquals(List.of(itemDto), result.get(0).getItems());
+    }
+
+    @Test
+    void getAllRequestsForUser_WithoutRequests_ShouldSkipItemLookup() {
+        when(userService.getUserEntityById(anyLong())).thenReturn(requestor);
+        when(requestRepository.findByRequestorIdOrderByCreatedDesc(anyLong())).thenReturn(List.of());
+
+        List<ItemRequestResponseDto> result = requestService.getAllRequestsForUser(requestor.getId());
+
+        assertTrue(result.isEmpty());
+        verify(itemRepository, never()).findByRequestIdIn(any());
     }
 
     @Test
@@ -184,4 +210,21 @@ class ItemRequestServiceImplTest {
         assertNotNull(result);
         assertTrue(result.getItems().isEmpty());
     }
+
+    @Test
+    void subscribeToAnswers_ShouldCheckUserAndDelegateToNotifier() {
+        SseEmitter emitter = new SseEmitter();
+        when(userService.getUserEntityById(requestor.getId())).thenReturn(requestor);
+        when(notifier.subscribe(requestor.getId())).thenReturn(emitter);
+
+        assertSame(emitter, requestService.subscribeToAnswers(requestor.getId()));
+    }
+
+    @Test
+    void subscribeToAnswers_WithUnknownUser_ShouldNotSubscribe() {
+        when(userService.getUserEntityById(999L)).thenThrow(new NotFoundException("User not found"));
+
+        assertThrows(NotFoundException.class, () -> requestService.subscribeToAnswers(999L));
+        verify(notifier, never()).subscribe(anyLong());
+    }
 }
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.request;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +14,15 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +45,15 @@ class ItemRequestServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ItemRequestMatchRepository matchRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User requestor;
     private User anotherUser;
 
@@ -98,7 +113,7 @@ class ItemRequestServiceIntegrationTest {
 
         itemRequestService.createRequest(createTestRequestDto(), anotherUser.getId());
 
-        List<ItemRequestDto> requests = itemRequestService.getAllRequestsForUser(requestor.getId());
+        List<ItemRequestResponseDto> requests = itemRequestService.getAllRequestsForUser(requestor.getId());
 
         assertEquals(2, requests.size());
         assertTrue(requests.stream().anyMatch(r -> r.getId().equals(request1.getId())));
@@ -160,6 +175,59 @@ class ItemRequestServiceIntegrationTest {
                 itemRequestService.getAllRequests(requestor.getId(), 0, 0));
     }
 
+    @Test
+    void getAllRequestsForUser_shouldListAvailableMatchedItems() {
+        ItemRequestDto request = itemRequestService.createRequest(createTestRequestDto(), requestor.getId());
+        Item available = itemRepository.save(Item.builder().name("Drill").description("Cordless drill")
+                .available(true).owner(anotherUser).build());
+        Item unavailable = itemRepository.save(Item.builder().name("Old drill").description("Drill")
+                .available(false).owner(anotherUser).build());
+        LocalDateTime now = LocalDateTime.now();
+        matchRepository.save(ItemRequestMatch.builder()
+                .requestId(request.getId()).itemId(available.getId()).matchedAt(now).build());
+        matchRepository.save(ItemRequestMatch.builder()
+                .requestId(request.getId()).itemId(unavailable.getId()).matchedAt(now).build());
+
+        List<ItemRequestResponseDto> requests = itemRequestService.getAllRequestsForUser(requestor.getId());
+
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).getItems().isEmpty());
+        assertEquals(List.of(available.getId()),
+                requests.get(0).getMatchedItems().stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void getAllRequestsForUser_shouldEmbedAnsweringItems() {
+        ItemRequestDto answered = itemRequestService.createRequest(createTestRequestDto(), requestor.getId());
+        ItemRequestDto unanswered = itemRequestService.createRequest(
+                ItemRequestDto.builder().description("Need a ladder").build(),
+                requestor.getId());
+
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Powerful drill")
+                .available(true)
+                .owner(anotherUser)
+                .request(itemRequestRepository.findById(answered.getId()).orElseThrow())
+                .build());
+
+        List<ItemRequestResponseDto> requests = itemRequestService.getAllRequestsForUser(requestor.getId());
+
+        ItemRequestResponseDto withItems = requests.stream()
+                .filter(r -> r.getId().equals(answered.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, withItems.getItems().size());
+        assertEquals(item.getId(), withItems.getItems().get(0).getId());
+        assertEquals(answered.getId(), withItems.getItems().get(0).getRequestId());
+
+        ItemRequestResponseDto withoutItems = requests.stream()
+                .filter(r -> r.getId().equals(unanswered.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(withoutItems.getItems().isEmpty());
+    }
+
     @Test
     void getRequestById_shouldReturnRequestWithItems() {
         ItemRequestDto requestDto = itemRequestService.createRequest(createTestRequestDto(), requestor.getId());
@@ -192,9 +260,73 @@ class ItemRequestServiceIntegrationTest {
         assertTrue(response.getItems().stream().anyMatch(i -> i.getId().equals(item2.getId())));
     }
 
+    @Test
+    void getRequestById_shouldListMatchedItemsAndChangeETagWithThem() {
+        ItemRequestDto request = itemRequestService.createRequest(createTestRequestDto(), requestor.getId());
+        Item drill = itemRepository.save(Item.builder().name("Drill").description("Cordless drill")
+                .available(true).owner(anotherUser).build());
+        String before = itemRequestService.getRequestETag(request.getId());
+
+        matchRepository.save(ItemRequestMatch.builder()
+                .requestId(request.getId()).itemId(drill.getId()).matchedAt(LocalDateTime.now()).build());
+        String matched = itemRequestService.getRequestETag(request.getId());
+        drill.setAvailable(false);
+        itemRepository.saveAndFlush(drill);
+
+        assertNotEquals(before, matched);
+        assertNotEquals(matched, itemRequestService.getRequestETag(request.getId()));
+        assertTrue(itemRequestService.getRequestById(request.getId()).getMatchedItems().isEmpty());
+        drill.setAvailable(true);
+        itemRepository.saveAndFlush(drill);
+        assertEquals(List.of(drill.getId()), itemRequestService.getRequestById(request.getId())
+                .getMatchedItems().stream().map(ItemDto::getId).toList());
+    }
+
     @Test
     void getRequestById_withNonExistingId_shouldThrowException() {
         assertThrows(NotFoundException.class, () ->
                 itemRequestService.getRequestById(9999L));
     }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void secondLevelCache_shouldServeRequestReadsAndFollowCommittedWrites() {
+        try {
+            Long requestId = itemRequestService.createRequest(createTestRequestDto(), requestor.getId()).getId();
+
+            // IDENTITY inserts are not put into the cache, the first read does that
+            itemRequestService.getRequestById(requestId);
+            assertTrue(entityManagerFactory.getCache().contains(ItemRequest.class, requestId));
+
+            CacheRegionStatistics requests = regionStatistics("item-requests");
+            // the outbox relay may hit the same rows meanwhile; an unchanged miss count shows the read was cached
+            long requestHits = requests.getHitCount();
+            long requestMisses = requests.getMissCount();
+            assertEquals("Need a drill for home repairs",
+                    itemRequestService.getRequestById(requestId).getDescription());
+            assertTrue(requests.getHitCount() > requestHits);
+            assertEquals(requestMisses, requests.getMissCount());
+
+            // the cached request row does not hide answers, they are read by query
+            Item answer = itemRepository.save(Item.builder().name("Drill").description("Cordless drill")
+                    .available(true).owner(anotherUser)
+                    .request(itemRequestRepository.findById(requestId).orElseThrow()).build());
+            assertEquals(List.of(answer.getId()), itemRequestService.getRequestById(requestId).getItems().stream()
+                    .map(ItemDto::getId).toList());
+
+            itemRepository.deleteById(answer.getId());
+            itemRequestRepository.deleteById(requestId);
+
+            assertThrows(NotFoundException.class, () -> itemRequestService.getRequestById(requestId));
+        } finally {
+            outboxRepository.deleteAll();
+            itemRepository.deleteAll();
+            itemRequestRepository.deleteAll();
+            userRepository.deleteAll();
+        }
+    }
+
+    private CacheRegionStatistics regionStatistics(String region) {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getDomainDataRegionStatistics(region);
+    }
 }
@@ -7,8 +7,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemCatalogVersion;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -18,6 +20,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,6 +34,9 @@ public class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private ItemCatalogVersion catalogVersion;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
@@ -61,6 +67,19 @@ public class UserControllerTest {
         verify(userService).getUserById(1L);
     }
 
+    @Test
+    void getUserById_WithStaleETag_ShouldReturnUserWithCurrentETag() throws Exception {
+        UserDto userDto = new UserDto(1L, "User Name", "user@example.com");
+        given(userService.getUserETag(1L)).willReturn("\"user-1-2\"");
+        given(userService.getUserById(1L)).willReturn(userDto);
+
+        mockMvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"user-1-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"user-1-2\""))
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
     @Test
     void updateUser_ShouldReturnUpdatedUser() throws Exception {
         UserDto userDto = new UserDto(1L, "Updated Name", "updated@example.com");
@@ -100,5 +119,6 @@ public class UserControllerTest {
                 .andExpect(status().isNoContent());
 
         verify(userService).deleteUser(1L);
+        verify(catalogVersion).expose(any());
     }
 }
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +12,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemFuzzyIndex;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSuggestIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxRelay;
+import ru.practicum.shareit.request.ItemRequestPercolator;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -28,6 +42,30 @@ class UserServiceImplIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemSuggestIndex suggestIndex;
+
+    @Autowired
+    private ItemFuzzyIndex fuzzyIndex;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ItemRequestService requestService;
+
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    @Autowired
+    private ItemRequestPercolator percolator;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
@@ -89,6 +127,124 @@ class UserServiceImplIntegrationTest {
         assertEquals("updated@email.com", dbUser.getEmail());
     }
 
+    @Test
+    void getUserETag_shouldChangeAfterUpdate() {
+        UserDto user = userService.createUser(createTestUserDto());
+        String before = userService.getUserETag(user.getId());
+
+        assertEquals(before, userService.getUserETag(user.getId()));
+
+        userService.updateUser(user.getId(), UserDto.builder().name("Updated Name").build());
+
+        assertNotEquals(before, userService.getUserETag(user.getId()));
+        assertThrows(NotFoundException.class, () -> userService.getUserETag(999L));
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void secondLevelCache_shouldServeReadsAndFollowCommittedWrites() {
+        UserDto user = userService.createUser(createTestUserDto());
+        try {
+            CacheRegionStatistics region = entityManagerFactory.unwrap(SessionFactory.class)
+                    .getStatistics().getDomainDataRegionStatistics("users");
+            // IDENTITY inserts are not put into the cache, the first read does that
+            userService.getUserById(user.getId());
+            assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+            // the outbox relay may hit the same rows meanwhile; an unchanged miss count shows the read was cached
+            long hits = region.getHitCount();
+            long misses = region.getMissCount();
+
+            assertEquals("Test User", userService.getUserById(user.getId()).getName());
+            assertTrue(region.getHitCount() > hits);
+            assertEquals(misses, region.getMissCount());
+
+            userService.updateUser(user.getId(), UserDto.builder().name("Updated Name").build());
+            hits = region.getHitCount();
+            misses = region.getMissCount();
+
+            assertEquals("Updated Name", userService.getUserById(user.getId()).getName());
+            assertTrue(region.getHitCount() > hits);
+            assertEquals(misses, region.getMissCount());
+
+            userService.deleteUser(user.getId());
+
+            assertThrows(NotFoundException.class, () -> userService.getUserById(user.getId()));
+        } finally {
+            userRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void deleteUser_shouldDropCascadedItemsFromSearchIndexes() {
+        UserDto user = userService.createUser(createTestUserDto());
+        try {
+            Item item = itemRepository.save(Item.builder().name("Drill").description("Cordless drill")
+                    .available(true).owner(userService.getUserEntityById(user.getId())).build());
+            OutboxEvent created = OutboxEvent.builder().type(OutboxEventType.ITEM_CREATED)
+                    .aggregateId(item.getId()).build();
+            suggestIndex.onEvent(created);
+            fuzzyIndex.onEvent(created);
+            assertEquals(List.of(item.getId()), fuzzyIndex.search("drill"));
+
+            userService.deleteUser(user.getId());
+            outboxRelay.relay();
+
+            assertTrue(fuzzyIndex.search("drill").isEmpty());
+            assertTrue(suggestIndex.suggest("dri", 10).isEmpty());
+        } finally {
+            userRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void deleteUser_shouldEvictCascadedItemsFromSecondLevelCache() {
+        UserDto user = userService.createUser(createTestUserDto());
+        try {
+            Item item = itemRepository.save(Item.builder().name("Drill").description("Cordless drill")
+                    .available(true).owner(userService.getUserEntityById(user.getId())).build());
+            itemRepository.findById(item.getId());
+            assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+
+            userService.deleteUser(user.getId());
+
+            assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+            assertTrue(itemRepository.findById(item.getId()).isEmpty());
+        } finally {
+            userRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void deleteUser_shouldDeleteRequestsAndDropThemFromPercolator() {
+        UserDto requestor = userService.createUser(createTestUserDto());
+        UserDto owner = userService.createUser(UserDto.builder().name("Owner").email("owner@email.com").build());
+        try {
+            ItemRequestDto answered = requestService.createRequest(
+                    ItemRequestDto.builder().description("Need an aluminium ladder").build(), requestor.getId());
+            requestService.createRequest(
+                    ItemRequestDto.builder().description("Looking for a cordless drill").build(), requestor.getId());
+            outboxRelay.relay();
+            assertFalse(percolator.percolate(owner.getId(), "Cordless drill", null).isEmpty());
+            Item answer = itemRepository.save(Item.builder().name("Ladder").description("Aluminium ladder")
+                    .available(true).owner(userService.getUserEntityById(owner.getId()))
+                    .request(requestRepository.findById(answered.getId()).orElseThrow()).build());
+
+            userService.deleteUser(requestor.getId());
+            outboxRelay.relay();
+
+            assertTrue(requestRepository.findByRequestorIdOrderByCreatedDesc(requestor.getId()).isEmpty());
+            assertNull(itemRepository.findById(answer.getId()).orElseThrow().getRequest());
+            assertTrue(percolator.percolate(owner.getId(), "Cordless drill", null).isEmpty());
+            assertTrue(percolator.percolate(owner.getId(), "Ladder", "Aluminium ladder").isEmpty());
+        } finally {
+            requestRepository.deleteAll();
+            userRepository.deleteAll();
+        }
+    }
+
     @Test
     void updateUser_partialUpdate_shouldUpdateOnlySpecifiedFields() {
         UserDto originalUser = userService.createUser(createTestUserDto());
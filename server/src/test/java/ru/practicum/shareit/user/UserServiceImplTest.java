@@ -6,9 +6,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exception.DuplicateEmailException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemCatalogChangedEvent;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemsDeletedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -26,6 +36,21 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemRequestRepository requestRepository;
+
+    @Mock
+    private ItemMapper itemMapper;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -156,6 +181,39 @@ class UserServiceImplTest {
         userService.deleteUser(1L);
 
         verify(userRepository).deleteById(1L);
+        verifyNoInteractions(eventPublisher, outboxService);
+    }
+
+    @Test
+    void deleteUser_WithItems_ShouldPublishTheirIdsForCacheEvictionAndIndexes() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.findIdsByOwnerId(1L)).thenReturn(List.of(3L, 4L));
+
+        userService.deleteUser(1L);
+
+        verify(outboxService).record(OutboxEventType.ITEM_DELETED, 3L, 3L);
+        verify(outboxService).record(OutboxEventType.ITEM_DELETED, 4L, 4L);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ItemsDeletedEvent deleted
+                && deleted.getItemIds().equals(List.of(3L, 4L))));
+        verify(eventPublisher).publishEvent(any(ItemCatalogChangedEvent.class));
+    }
+
+    @Test
+    void deleteUser_WithRequests_ShouldDetachAnswersAndUnregisterRequests() {
+        ItemRequest request = new ItemRequest();
+        request.setId(7L);
+        Item answer = Item.builder().id(5L).request(request).build();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.findByRequestorIdOrderByCreatedDesc(1L)).thenReturn(List.of(request));
+        when(itemRepository.findByRequestIdIn(List.of(7L))).thenReturn(List.of(answer));
+
+        userService.deleteUser(1L);
+
+        assertNull(answer.getRequest());
+        verify(outboxService).record(eq(OutboxEventType.ITEM_UPDATED), eq(5L), any());
+        verify(requestRepository).deleteAll(List.of(request));
+        verify(outboxService).record(OutboxEventType.REQUEST_DELETED, 7L, 7L);
+        verify(userRepository).deleteById(1L);
     }
 
     @Test